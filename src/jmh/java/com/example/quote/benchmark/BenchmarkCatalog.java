@@ -0,0 +1,113 @@
+package com.example.quote.benchmark;
+
+import com.example.quote.DailyQuoteServiceApplication;
+import com.example.quote.dto.BulkImportResponse;
+import com.example.quote.service.QuoteBulkService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Boots the application against a private in-memory H2 database holding a synthetic catalog of a given size
+ */
+public final class BenchmarkCatalog {
+
+    public static final int AUTHORS = 1000;
+
+    private static final String[] WORDS = {
+            "courage", "patience", "wisdom", "journey", "light", "dream", "work", "love",
+            "failure", "success", "time", "future", "change", "hope", "truth", "silence"
+    };
+
+    private BenchmarkCatalog() {
+    }
+
+    public static ConfigurableApplicationContext start(int quotes, String... extraProperties) {
+        return start(WebApplicationType.NONE, quotes, extraProperties);
+    }
+
+    /**
+     * Same as {@link #start(int, String...)} but with the embedded web server listening on a random port
+     */
+    public static ConfigurableApplicationContext startServer(int quotes, String... extraProperties) {
+        String[] properties = new String[extraProperties.length + 1];
+        properties[0] = "server.port=0";
+        System.arraycopy(extraProperties, 0, properties, 1, extraProperties.length);
+        return start(WebApplicationType.SERVLET, quotes, properties);
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type, int quotes, String... extraProperties) {
+        // Passed as command line arguments so they override application.properties
+        String[] arguments = new String[extraProperties.length + 4];
+        arguments[0] = "--spring.datasource.url=jdbc:h2:mem:bench" + quotes + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1";
+        arguments[1] = "--logging.level.root=WARN";
+        arguments[2] = "--logging.level.com.example.quote=WARN";
+        arguments[3] = "--spring.main.banner-mode=off";
+        for (int i = 0; i < extraProperties.length; i++) {
+            arguments[i + 4] = "--" + extraProperties[i];
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DailyQuoteServiceApplication.class)
+                .web(type)
+                .run(arguments);
+        seed(context, quotes);
+        return context;
+    }
+
+    public static String author(int index) {
+        return "Author " + (index % AUTHORS);
+    }
+
+    public static String text(int index) {
+        return "Quote " + index + " on " + WORDS[index % WORDS.length] + " and "
+                + WORDS[(index / WORDS.length) % WORDS.length] + ", written for the benchmark catalog.";
+    }
+
+    /**
+     * Import {@code quotes} synthetic rows through the bulk import path, on top of the handful of sample quotes the
+     * application seeds itself, so every catalog size holds the synthetic authors and IDs {@code 1..quotes} exist
+     */
+    private static void seed(ConfigurableApplicationContext context, int quotes) {
+        try {
+            BulkImportResponse result = context.getBean(QuoteBulkService.class).importNdjson(new SyntheticNdjson(quotes));
+            if (result.getFailed() > 0) {
+                throw new IllegalStateException("Seeding failed for " + result.getFailed() + " rows: " + result.getErrors());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Generates NDJSON rows lazily so seeding a million quotes does not need the whole document in memory
+     */
+    private static final class SyntheticNdjson extends InputStream {
+
+        private final long rows;
+        private long next;
+        private byte[] line = new byte[0];
+        private int position;
+
+        SyntheticNdjson(long rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (next == rows) {
+                    return -1;
+                }
+                int index = (int) next++;
+                line = ("{\"text\":\"" + text(index) + "\",\"author\":\"" + author(index) + "\"}\n")
+                        .getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            return line[position++];
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.quote.benchmark;
+
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop HTTP load test: boots the application in the chosen thread mode and drives it with
+ * a fixed number of concurrent clients, then reports throughput and latency percentiles.
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec@load-test -Dload.args="mode=virtual clients=1000"}.
+ */
+public final class HttpLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "mode", "platform",
+                "clients", "1000",
+                "quotes", "10000",
+                "warmup", "5",
+                "duration", "20",
+                "paths", "/api/v1/quotes/random,/api/v1/quotes/author/Author%207"));
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            options.put(pair[0], pair[1]);
+        }
+        String mode = options.get("mode");
+        int clients = Integer.parseInt(options.get("clients"));
+        List<String> paths = Arrays.asList(options.get("paths").split(","));
+
+        // Every simulated client shares one address, so per-client rate limiting would measure nothing but itself
+        ConfigurableApplicationContext context = "virtual".equals(mode)
+                ? BenchmarkCatalog.startServer(Integer.parseInt(options.get("quotes")), "spring.profiles.active=vthreads",
+                        "quote.rate-limit.enabled=false")
+                : BenchmarkCatalog.startServer(Integer.parseInt(options.get("quotes")), "quote.rate-limit.enabled=false");
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder().executor(executor).build();
+            String base = "http://localhost:" + port;
+            run(executor, client, base, paths, clients, Duration.ofSeconds(Long.parseLong(options.get("warmup"))));
+            Result result = run(executor, client, base, paths, clients, Duration.ofSeconds(Long.parseLong(options.get("duration"))));
+            String report = result.toJson(mode, clients);
+            System.out.println(report);
+            Path output = Path.of("target", "load-test-" + mode + ".json");
+            Files.writeString(output, report);
+            System.out.println("Load test result is saved to " + output);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result run(ExecutorService executor, HttpClient client, String base, List<String> paths,
+                              int clients, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Worker>> futures = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            futures.add(executor.submit(() -> new Worker().drive(client, base, paths, deadline)));
+        }
+        Result result = new Result(duration);
+        for (Future<Worker> future : futures) {
+            result.merge(future.get());
+        }
+        return result;
+    }
+
+    private static final class Worker {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long ok;
+        private long shed;
+        private long failed;
+
+        Worker drive(HttpClient client, String base, List<String> paths, long deadline) {
+            while (System.nanoTime() < deadline) {
+                String path = paths.get(ThreadLocalRandom.current().nextInt(paths.size()));
+                HttpRequest request = HttpRequest.newBuilder(URI.create(base + path)).GET().build();
+                long start = System.nanoTime();
+                try {
+                    int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (status == 200) {
+                        ok++;
+                    } else if (status == 429 || status == 503) {
+                        shed++;
+                    } else {
+                        failed++;
+                    }
+                } catch (IOException e) {
+                    failed++;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return this;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count << 1);
+                }
+                latencies[count++] = System.nanoTime() - start;
+            }
+            return this;
+        }
+    }
+
+    private static final class Result {
+
+        private final Duration duration;
+        private long[] latencies = new long[0];
+        private long ok;
+        private long shed;
+        private long failed;
+
+        Result(Duration duration) {
+            this.duration = duration;
+        }
+
+        void merge(Worker worker) {
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + worker.count);
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            ok += worker.ok;
+            shed += worker.shed;
+            failed += worker.failed;
+        }
+
+        String toJson(String mode, int clients) {
+            Arrays.sort(latencies);
+            return String.format(Locale.ROOT,
+                    "{\"mode\":\"%s\",\"clients\":%d,\"requests\":%d,\"ok\":%d,\"shed\":%d,\"failed\":%d,"
+                            + "\"throughputPerSecond\":%.1f,\"p50Millis\":%.2f,\"p90Millis\":%.2f,\"p99Millis\":%.2f,"
+                            + "\"p999Millis\":%.2f,\"maxMillis\":%.2f}",
+                    mode, clients, latencies.length, ok, shed, failed,
+                    latencies.length / (double) duration.toSeconds(),
+                    percentile(0.50), percentile(0.90), percentile(0.99), percentile(0.999),
+                    latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+        }
+
+        private double percentile(double quantile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            return latencies[(int) Math.min(latencies.length - 1, Math.ceil(quantile * latencies.length) - 1)] / 1e6;
+        }
+    }
+}
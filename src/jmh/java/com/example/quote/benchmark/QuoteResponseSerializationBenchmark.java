@@ -0,0 +1,57 @@
+package com.example.quote.benchmark;
+
+import com.example.quote.dto.QuoteResponse;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of writing one response and a full list response, configured like the application's ObjectMapper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class QuoteResponseSerializationBenchmark {
+
+    @Param({"10", "10000", "1000000"})
+    public int quotes;
+
+    private ObjectWriter writer;
+    private QuoteResponse single;
+    private List<QuoteResponse> list;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writer();
+        LocalDateTime createdAt = LocalDateTime.now();
+        list = new ArrayList<>(quotes);
+        for (int i = 0; i < quotes; i++) {
+            list.add(new QuoteResponse((long) i + 1, BenchmarkCatalog.text(i), BenchmarkCatalog.author(i), createdAt, i == 0, 0));
+        }
+        single = list.get(0);
+    }
+
+    @Benchmark
+    public byte[] serializeOne() throws IOException {
+        return writer.writeValueAsBytes(single);
+    }
+
+    @Benchmark
+    public void serializeList() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), list);
+    }
+}
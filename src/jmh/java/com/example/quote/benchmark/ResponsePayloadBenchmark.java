@@ -0,0 +1,86 @@
+package com.example.quote.benchmark;
+
+import com.example.quote.dto.ProjectedQuotes;
+import com.example.quote.dto.QuoteField;
+import com.example.quote.dto.QuoteResponse;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU cost of producing a list response body for each serving option: all fields or a {@code ?fields=id,text}
+ * projection, sent as is or gzip-compressed at the level Tomcat's response compression uses.
+ * Bytes on the wire do not vary between runs, so they are printed once per trial rather than measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ResponsePayloadBenchmark {
+
+    @Param({"10", "10000", "1000000"})
+    public int quotes;
+
+    @Param({"all", "id,text"})
+    public String fields;
+
+    @Param({"identity", "gzip"})
+    public String encoding;
+
+    private ObjectWriter writer;
+    private Object body;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writer();
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<QuoteResponse> list = new ArrayList<>(quotes);
+        for (int i = 0; i < quotes; i++) {
+            list.add(new QuoteResponse((long) i + 1, BenchmarkCatalog.text(i), BenchmarkCatalog.author(i), createdAt, i == 0, 0));
+        }
+        body = "all".equals(fields) ? list : new ProjectedQuotes(list, QuoteField.parse(fields));
+        System.out.printf("%n%d quotes, fields=%s, %s: %d bytes on the wire%n", quotes, fields, encoding, writeBody());
+    }
+
+    @Benchmark
+    public long writeBody() throws IOException {
+        CountingOutputStream wire = new CountingOutputStream();
+        if ("gzip".equals(encoding)) {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(wire, 8192)) {
+                writer.writeValue(gzip, body);
+            }
+        } else {
+            writer.writeValue(wire, body);
+        }
+        return wire.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.quote.popularity;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cost of recording one view from many threads at once: the striped primitive maps behind
+ * {@link QuotePopularity}, against a map of {@link LongAdder}s keyed by boxed quote ID.
+ * {@code hotQuotes} is how many distinct quotes the views spread over.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(8)
+public class ViewCounterBenchmark {
+
+    @Param({"10", "100000"})
+    public int hotQuotes;
+
+    private StripedViewCounter striped;
+    private ConcurrentHashMap<Long, LongAdder> adders;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        striped = new StripedViewCounter(Runtime.getRuntime().availableProcessors());
+        adders = new ConcurrentHashMap<>();
+    }
+
+    @Benchmark
+    public void striped() {
+        striped.record(1 + ThreadLocalRandom.current().nextInt(hotQuotes));
+    }
+
+    @Benchmark
+    public void longAdders() {
+        adders.computeIfAbsent(1L + ThreadLocalRandom.current().nextInt(hotQuotes), id -> new LongAdder()).increment();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.quote.service;
+
+import com.example.quote.benchmark.BenchmarkCatalog;
+import com.example.quote.dto.QuoteResponse;
+import com.example.quote.index.DailyQuotePicker;
+import com.example.quote.model.Quote;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database read paths two ways: managed {@link Quote} entities copied into responses (how the read model
+ * worked before), against the constructor projections {@link DatabaseQuoteReadModel} runs now.
+ * Run with {@code -prof gc} to compare {@code gc.alloc.rate.norm}, the bytes allocated per read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class QuoteReadPathBenchmark {
+
+    @Param({"10", "10000", "1000000"})
+    public int quotes;
+
+    @Param({"entity", "projection"})
+    public String path;
+
+    private ConfigurableApplicationContext context;
+    private QuoteReadModel readModel;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private DailyQuotePicker dailyQuotePicker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkCatalog.start(quotes, "quote.read-model=database");
+        readModel = context.getBean(QuoteReadModel.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        dailyQuotePicker = context.getBean(DailyQuotePicker.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<QuoteResponse> findAll() {
+        if ("projection".equals(path)) {
+            return readModel.findAll();
+        }
+        return readOnly.execute(status -> toResponses(entityManager
+                .createQuery("SELECT q FROM Quote q ORDER BY q.id", Quote.class)
+                .getResultList()));
+    }
+
+    @Benchmark
+    public List<QuoteResponse> findByAuthor() {
+        String author = BenchmarkCatalog.author(ThreadLocalRandom.current().nextInt(Math.min(quotes, BenchmarkCatalog.AUTHORS)));
+        if ("projection".equals(path)) {
+            return readModel.findByAuthor(author);
+        }
+        return readOnly.execute(status -> toResponses(entityManager
+                .createQuery("SELECT q FROM Quote q WHERE q.authorKey = :authorKey ORDER BY q.id", Quote.class)
+                .setParameter("authorKey", Quote.normalizeAuthor(author))
+                .getResultList()));
+    }
+
+    @Benchmark
+    public QuoteResponse findById() {
+        long id = 1 + ThreadLocalRandom.current().nextLong(quotes);
+        if ("projection".equals(path)) {
+            return readModel.findById(id);
+        }
+        return readOnly.execute(status -> {
+            Quote quote = entityManager.find(Quote.class, id);
+            return quote == null ? null : DatabaseQuoteReadModel.toResponse(quote, dailyQuotePicker.currentId());
+        });
+    }
+
+    private List<QuoteResponse> toResponses(List<Quote> entities) {
+        long dailyId = dailyQuotePicker.currentId();
+        return entities.stream()
+                .map(quote -> DatabaseQuoteReadModel.toResponse(quote, dailyId))
+                .toList();
+    }
+}
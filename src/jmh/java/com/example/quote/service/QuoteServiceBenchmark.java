@@ -0,0 +1,89 @@
+package com.example.quote.service;
+
+import com.example.quote.benchmark.BenchmarkCatalog;
+import com.example.quote.cache.EncodedQuote;
+import com.example.quote.dto.QuoteResponse;
+import com.example.quote.model.Quote;
+import com.example.quote.repository.QuoteRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service hot paths against H2 at several catalog sizes, with reads served by the database or the in-memory store
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class QuoteServiceBenchmark {
+
+    @Param({"10", "10000", "1000000"})
+    public int quotes;
+
+    @Param({"database", "memory"})
+    public String readModel;
+
+    private ConfigurableApplicationContext context;
+    private QuoteService quoteService;
+    private Quote sample;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkCatalog.start(quotes, "quote.read-model=" + readModel);
+        quoteService = context.getBean(QuoteService.class);
+        sample = context.getBean(QuoteRepository.class).findById(1L).orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public QuoteResponse getDailyQuote() {
+        return quoteService.getDailyQuote();
+    }
+
+    @Benchmark
+    public QuoteResponse getRandomQuote() {
+        return quoteService.getRandomQuote();
+    }
+
+    @Benchmark
+    public QuoteResponse getQuoteById() {
+        return quoteService.getQuoteById(1 + ThreadLocalRandom.current().nextLong(quotes));
+    }
+
+    @Benchmark
+    public List<EncodedQuote> getFilteredRandomQuotes() {
+        return quoteService.getEncodedRandomQuotes(null, 100, Set.of(), 10, false);
+    }
+
+    @Benchmark
+    public List<EncodedQuote> getWeightedRandomQuotes() {
+        return quoteService.getEncodedRandomQuotes(null, 100, Set.of(), 10, true);
+    }
+
+    @Benchmark
+    public List<QuoteResponse> getAllQuotes() {
+        return quoteService.getAllQuotes();
+    }
+
+    @Benchmark
+    public List<QuoteResponse> getQuotesByAuthor() {
+        int author = ThreadLocalRandom.current().nextInt(Math.min(quotes, BenchmarkCatalog.AUTHORS));
+        return quoteService.getQuotesByAuthor(BenchmarkCatalog.author(author));
+    }
+
+    @Benchmark
+    public QuoteResponse convertToResponse() {
+        return quoteService.convertToResponse(sample);
+    }
+}
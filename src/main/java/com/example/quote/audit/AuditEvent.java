@@ -0,0 +1,7 @@
+package com.example.quote.audit;
+
+/**
+ * One structured access or audit record. {@code quoteId} is 0 when the action is not about a single quote.
+ */
+public record AuditEvent(long timestampMillis, String action, long quoteId, String detail) {
+}
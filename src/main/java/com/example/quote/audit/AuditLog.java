@@ -0,0 +1,208 @@
+package com.example.quote.audit;
+
+import com.example.quote.config.QuoteProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous audit/access event pipeline.
+ * Request threads publish into a bounded lock-free multi-producer ring buffer and return immediately;
+ * a single background thread drains it in batches into the {@link AuditSink}.
+ * Read events are sampled, write events are always recorded. When the buffer is full events are
+ * either dropped (and counted) or the producer waits for space, depending on the overflow policy;
+ * a waiting producer is woken as soon as the writer frees slots and gives up after the block timeout.
+ */
+@Component
+@Slf4j
+public class AuditLog {
+
+    public enum OverflowPolicy {
+        DROP, BLOCK
+    }
+
+    private final AuditSink sink;
+    private final AtomicReferenceArray<AuditEvent> slots;
+    private final int mask;
+    /** Next sequence to claim by producers */
+    private final AtomicLong tail = new AtomicLong();
+    /** Next sequence to drain; only advanced by the writer thread */
+    private final AtomicLong head = new AtomicLong();
+    private final double readSampleRate;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final long idleParkNanos;
+    private final long blockTimeoutNanos;
+    private final ReentrantLock spaceLock = new ReentrantLock();
+    private final Condition spaceFreed = spaceLock.newCondition();
+    /** Producers waiting in {@link #awaitSpace}, so the writer only takes the lock when someone waits */
+    private final AtomicInteger blockedProducers = new AtomicInteger();
+    private final Counter dropped;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AuditLog(AuditSink sink, QuoteProperties quoteProperties, MeterRegistry registry) {
+        QuoteProperties.Audit properties = quoteProperties.getAudit();
+        int capacity = Integer.highestOneBit(Math.max(2, properties.getBufferSize() - 1)) << 1;
+        this.sink = sink;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.readSampleRate = properties.getReadSampleRate();
+        this.overflowPolicy = properties.getOverflowPolicy();
+        this.batchSize = properties.getBatchSize();
+        this.idleParkNanos = properties.getFlushInterval().toNanos();
+        this.blockTimeoutNanos = properties.getBlockTimeout().toNanos();
+        this.dropped = Counter.builder("quote.audit.dropped")
+                .description("Audit events dropped because the buffer was full")
+                .register(registry);
+        Gauge.builder("quote.audit.pending", this, audit -> audit.tail.get() - audit.head.get())
+                .description("Audit events waiting to be written")
+                .register(registry);
+        this.writer = Thread.ofPlatform().name("audit-writer").daemon().start(this::drainLoop);
+    }
+
+    /**
+     * Record a write or administrative action; never sampled
+     */
+    public void record(String action, long quoteId, String detail) {
+        publish(new AuditEvent(System.currentTimeMillis(), action, quoteId, detail));
+    }
+
+    /**
+     * Record a read; only a sample of reads is kept so the hot read paths stay cheap
+     */
+    public void recordRead(String action, long quoteId, String detail) {
+        if (readSampleRate <= 0 || (readSampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= readSampleRate)) {
+            return;
+        }
+        publish(new AuditEvent(System.currentTimeMillis(), action, quoteId, detail));
+    }
+
+    private void publish(AuditEvent event) {
+        long sequence;
+        long deadline = 0;
+        boolean waited = false;
+        while (true) {
+            sequence = tail.get();
+            if (sequence - head.get() > mask) {
+                if (overflowPolicy == OverflowPolicy.DROP || !running) {
+                    dropped.increment();
+                    return;
+                }
+                if (!waited) {
+                    deadline = System.nanoTime() + blockTimeoutNanos;
+                    waited = true;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !awaitSpace(remaining)) {
+                    dropped.increment();
+                    return;
+                }
+            } else if (tail.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        slots.lazySet((int) (sequence & mask), event);
+    }
+
+    /**
+     * Wait until the writer frees slots, at most {@code nanos}
+     *
+     * @return {@code false} if the producer was interrupted
+     */
+    private boolean awaitSpace(long nanos) {
+        blockedProducers.incrementAndGet();
+        // The writer may be idle-parked while producers fill the buffer
+        LockSupport.unpark(writer);
+        spaceLock.lock();
+        try {
+            // Re-checked under the lock: the writer signals after advancing head, so no wake-up is lost
+            if (tail.get() - head.get() > mask && running) {
+                spaceFreed.awaitNanos(nanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            spaceLock.unlock();
+            blockedProducers.decrementAndGet();
+        }
+    }
+
+    private void signalSpace() {
+        if (blockedProducers.get() > 0) {
+            spaceLock.lock();
+            try {
+                spaceFreed.signalAll();
+            } finally {
+                spaceLock.unlock();
+            }
+        }
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || head.get() != tail.get()) {
+            drain(batch);
+            if (batch.isEmpty()) {
+                if (head.get() != tail.get()) {
+                    // A producer claimed a slot but has not published into it yet; it is about to
+                    Thread.yield();
+                } else if (running) {
+                    LockSupport.parkNanos(idleParkNanos);
+                }
+                continue;
+            }
+            signalSpace();
+            try {
+                sink.write(batch);
+            } catch (RuntimeException e) {
+                log.warn("Failed to write {} audit events", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void drain(List<AuditEvent> batch) {
+        long sequence = head.get();
+        while (batch.size() < batchSize) {
+            int index = (int) (sequence & mask);
+            AuditEvent event = slots.get(index);
+            if (event == null) {
+                break;
+            }
+            slots.lazySet(index, null);
+            batch.add(event);
+            sequence++;
+        }
+        head.set(sequence);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        spaceLock.lock();
+        try {
+            spaceFreed.signalAll();
+        } finally {
+            spaceLock.unlock();
+        }
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
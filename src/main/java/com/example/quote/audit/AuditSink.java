@@ -0,0 +1,11 @@
+package com.example.quote.audit;
+
+import java.util.List;
+
+/**
+ * Destination for drained audit events; called from the single background writer thread only
+ */
+public interface AuditSink {
+
+    void write(List<AuditEvent> batch);
+}
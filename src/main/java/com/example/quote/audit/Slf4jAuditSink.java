@@ -0,0 +1,35 @@
+package com.example.quote.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes audit events as key=value lines to the {@code com.example.quote.audit} logger
+ */
+@Component
+@Slf4j
+public class Slf4jAuditSink implements AuditSink {
+
+    @Override
+    public void write(List<AuditEvent> batch) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder line = new StringBuilder(128);
+        for (AuditEvent event : batch) {
+            line.setLength(0);
+            line.append("ts=").append(Instant.ofEpochMilli(event.timestampMillis()))
+                    .append(" action=").append(event.action());
+            if (event.quoteId() != 0) {
+                line.append(" quoteId=").append(event.quoteId());
+            }
+            if (event.detail() != null) {
+                line.append(" detail=\"").append(event.detail().replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            }
+            log.info(line.toString());
+        }
+    }
+}
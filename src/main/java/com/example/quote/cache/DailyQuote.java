@@ -0,0 +1,16 @@
+package com.example.quote.cache;
+
+import com.example.quote.dto.QuoteResponse;
+
+import java.time.Instant;
+
+/**
+ * Precomputed daily quote together with its encoded body and HTTP validators.
+ * The response and body are shared between requests and must not be modified.
+ */
+public record DailyQuote(EncodedQuote body, String etag, Instant lastModified) {
+
+    public QuoteResponse quote() {
+        return body.quote();
+    }
+}
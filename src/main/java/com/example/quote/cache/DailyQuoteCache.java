@@ -0,0 +1,106 @@
+package com.example.quote.cache;
+
+import com.example.quote.dto.QuoteResponse;
+import com.example.quote.event.DailyQuoteRotatedEvent;
+import com.example.quote.event.QuoteChangedEvent;
+import com.example.quote.index.DailyQuotePicker;
+import com.example.quote.index.QuoteIdIndex;
+import com.example.quote.metrics.QuoteMetrics;
+import com.example.quote.service.QuoteReadModel;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the encoded daily quote of each recent date, as picked by {@link DailyQuotePicker}.
+ * Reads never touch the database once a date's quote is loaded. An entry is rebuilt when the picker
+ * moves to another quote or the quote itself is edited. The ETag depends only on the date and the
+ * quote, so every node serves the same one; Last-Modified is when this node built the entry, so it
+ * moves forward whenever the body may have changed.
+ */
+@Component
+public class DailyQuoteCache {
+
+    private final DailyQuotePicker dailyQuotePicker;
+    private final QuoteReadModel quoteReadModel;
+    private final QuoteBodyEncoder quoteBodyEncoder;
+    private final QuoteByIdCache quoteByIdCache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Map<LocalDate, DailyQuote> byDate = new ConcurrentHashMap<>();
+
+    public DailyQuoteCache(DailyQuotePicker dailyQuotePicker, QuoteReadModel quoteReadModel,
+                           QuoteBodyEncoder quoteBodyEncoder, QuoteByIdCache quoteByIdCache, QuoteMetrics quoteMetrics) {
+        this.dailyQuotePicker = dailyQuotePicker;
+        this.quoteReadModel = quoteReadModel;
+        this.quoteBodyEncoder = quoteBodyEncoder;
+        this.quoteByIdCache = quoteByIdCache;
+        this.hits = quoteMetrics.cacheHits("daily");
+        this.misses = quoteMetrics.cacheMisses("daily");
+    }
+
+    /**
+     * Today's quote in {@code zone}, or empty when the catalog is empty
+     */
+    public Optional<DailyQuote> get(ZoneId zone) {
+        LocalDate date = dailyQuotePicker.today(zone);
+        long id = dailyQuotePicker.pick(date);
+        DailyQuote cached = byDate.get(date);
+        if (cached != null && cached.quote().getId() == id) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        if (id == QuoteIdIndex.NONE) {
+            return Optional.empty();
+        }
+        QuoteResponse quote = quoteReadModel.findById(id);
+        if (quote == null) {
+            // Deleted after it was picked; the picker recomputes once the delete is applied
+            return Optional.empty();
+        }
+        if (cached != null) {
+            // The pick moved mid-day, so cached bodies of both quotes carry a stale isDailyQuote flag
+            quoteByIdCache.invalidate(cached.quote().getId());
+            quoteByIdCache.invalidate(id);
+        }
+        DailyQuote daily = snapshot(date, quote);
+        byDate.put(date, daily);
+        return Optional.of(daily);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyQuoteRotated(DailyQuoteRotatedEvent event) {
+        LocalDate oldest = event.date().minusDays(2);
+        byDate.keySet().removeIf(date -> date.isBefore(oldest));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuoteChanged(QuoteChangedEvent event) {
+        if (event.previous() != null) {
+            byDate.values().removeIf(daily -> daily.quote().getId() == event.previous().id());
+        }
+    }
+
+    private DailyQuote snapshot(LocalDate date, QuoteResponse quote) {
+        QuoteResponse response = QuoteResponse.builder()
+                .id(quote.getId())
+                .text(quote.getText())
+                .author(quote.getAuthor())
+                .createdAt(quote.getCreatedAt())
+                .isDailyQuote(true)
+                .version(quote.getVersion())
+                .build();
+        String etag = "\"d" + quote.getId() + "-" + date.toEpochDay() + "-v" + quote.getVersion() + "-"
+                + Integer.toHexString((quote.getText() + '\n' + quote.getAuthor()).hashCode()) + "\"";
+        // Not the start of the date: the pick can move and the quote can be edited during the day
+        return new DailyQuote(quoteBodyEncoder.encode(response), etag, Instant.now());
+    }
+}
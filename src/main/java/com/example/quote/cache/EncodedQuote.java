@@ -0,0 +1,11 @@
+package com.example.quote.cache;
+
+import com.example.quote.dto.QuoteResponse;
+
+/**
+ * A quote together with its JSON body, serialized once and written to every response as is.
+ * {@code gzip} is {@code null} when the body is too small for compression to pay off.
+ * The arrays are shared between requests and must not be modified.
+ */
+public record EncodedQuote(QuoteResponse quote, byte[] json, byte[] gzip) {
+}
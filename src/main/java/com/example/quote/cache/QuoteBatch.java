@@ -0,0 +1,62 @@
+package com.example.quote.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Result of a batch fetch: the quotes found, in request order, and the requested IDs that do not exist
+ */
+public record QuoteBatch(List<EncodedQuote> quotes, List<Long> missing) {
+
+    private static final byte[] QUOTES_START = "{\"quotes\":[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MISSING_START = "],\"missing\":[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END = "]}".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * {@code {"quotes":[...],"missing":[...]}}, spliced together from the quotes' pre-serialized bodies
+     */
+    public byte[] json() {
+        int size = QUOTES_START.length + MISSING_START.length + END.length + bodySize(quotes) + missing.size() * 8;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        out.writeBytes(QUOTES_START);
+        writeBodies(out, quotes);
+        out.writeBytes(MISSING_START);
+        for (int i = 0; i < missing.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(Long.toString(missing.get(i)).getBytes(StandardCharsets.US_ASCII));
+        }
+        out.writeBytes(END);
+        return out.toByteArray();
+    }
+
+    /**
+     * {@code [...]}, a plain JSON array spliced together from the quotes' pre-serialized bodies
+     */
+    public static byte[] jsonArray(List<EncodedQuote> quotes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + bodySize(quotes));
+        out.write('[');
+        writeBodies(out, quotes);
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    private static int bodySize(List<EncodedQuote> quotes) {
+        int size = quotes.size();
+        for (EncodedQuote quote : quotes) {
+            size += quote.json().length;
+        }
+        return size;
+    }
+
+    private static void writeBodies(ByteArrayOutputStream out, List<EncodedQuote> quotes) {
+        for (int i = 0; i < quotes.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(quotes.get(i).json());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.quote.cache;
+
+import com.example.quote.config.QuoteProperties;
+import com.example.quote.dto.QuoteResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializes quotes with the application's {@link ObjectMapper}, so pre-encoded bodies are byte-for-byte
+ * what Spring MVC would have written, and precomputes a gzip variant for larger bodies.
+ */
+@Component
+public class QuoteBodyEncoder {
+
+    private final ObjectWriter writer;
+    private final int gzipMinSize;
+
+    public QuoteBodyEncoder(ObjectMapper objectMapper, QuoteProperties quoteProperties) {
+        this.writer = objectMapper.writerFor(QuoteResponse.class);
+        this.gzipMinSize = quoteProperties.getCache().getGzipMinSize();
+    }
+
+    public EncodedQuote encode(QuoteResponse quote) {
+        byte[] json;
+        try {
+            json = writer.writeValueAsBytes(quote);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize quote " + quote.getId(), e);
+        }
+        return new EncodedQuote(quote, json, json.length >= gzipMinSize ? gzip(json) : null);
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer, json.length)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] compressed = buffer.toByteArray();
+        // Short, unrepetitive quotes can grow once the gzip header is added
+        return compressed.length < json.length ? compressed : null;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.quote.cache;
+
+import com.example.quote.config.QuoteProperties;
+import com.example.quote.event.DailyQuoteRotatedEvent;
+import com.example.quote.event.QuoteChangedEvent;
+import com.example.quote.metrics.QuoteMetrics;
+import com.example.quote.util.LongLruCache;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Read-through, size-bounded LRU cache of encoded quotes by ID.
+ * Concurrent misses on the same ID share a single load. Entries are invalidated after an update or
+ * delete commits, and a load that overlaps an invalidation is returned to its callers but not cached.
+ */
+@Component
+public class QuoteByIdCache {
+
+    private final LongLruCache<EncodedQuote> cache;
+    private final ConcurrentHashMap<Long, CompletableFuture<EncodedQuote>> loading = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public QuoteByIdCache(QuoteProperties quoteProperties, QuoteMetrics quoteMetrics) {
+        QuoteProperties.Cache properties = quoteProperties.getCache();
+        this.cache = new LongLruCache<>(properties.getMaxSize(), properties.getSegments());
+        this.hits = quoteMetrics.cacheHits("byId");
+        this.misses = quoteMetrics.cacheMisses("byId");
+        quoteMetrics.cacheGauges("byId", cache, LongLruCache::size, LongLruCache::evictions);
+    }
+
+    /**
+     * @param loader reads and encodes the quote, returning {@code null} if it does not exist;
+     *               missing quotes are not cached
+     */
+    public EncodedQuote get(long id, LongFunction<EncodedQuote> loader) {
+        EncodedQuote cached = cache.get(id);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        CompletableFuture<EncodedQuote> load = new CompletableFuture<>();
+        CompletableFuture<EncodedQuote> inFlight = loading.putIfAbsent(id, load);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            long version = cache.version(id);
+            EncodedQuote loaded = loader.apply(id);
+            if (loaded != null) {
+                cache.putIfUnchanged(id, loaded, version);
+            }
+            load.complete(loaded);
+            return loaded;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(id, load);
+        }
+    }
+
+    /**
+     * Batch variant of {@link #get}: cached entries are used as is and every miss is resolved by a single
+     * {@code loader} call. Batch loads are not shared with concurrent loads of the same IDs.
+     *
+     * @param loader reads and encodes the quotes that exist among the given IDs, in any order
+     * @return the quotes found, by ID
+     */
+    public Map<Long, EncodedQuote> getAll(Collection<Long> ids, Function<List<Long>, List<EncodedQuote>> loader) {
+        Map<Long, EncodedQuote> found = new HashMap<>(ids.size() * 2);
+        List<Long> missed = new ArrayList<>();
+        Map<Long, Long> versions = new HashMap<>();
+        for (Long id : ids) {
+            EncodedQuote cached = cache.get(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missed.add(id);
+                versions.put(id, cache.version(id));
+            }
+        }
+        hits.increment(found.size());
+        misses.increment(missed.size());
+        if (missed.isEmpty()) {
+            return found;
+        }
+        for (EncodedQuote loaded : loader.apply(missed)) {
+            long id = loaded.quote().getId();
+            cache.putIfUnchanged(id, loaded, versions.get(id));
+            found.put(id, loaded);
+        }
+        return found;
+    }
+
+    public void invalidate(long id) {
+        cache.remove(id);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuoteChanged(QuoteChangedEvent event) {
+        if (event.previous() != null) {
+            invalidate(event.previous().id());
+        }
+    }
+
+    /**
+     * Rotation flips the daily flag on two quotes; it happens once a day, so dropping everything is cheapest
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyQuoteRotated(DailyQuoteRotatedEvent event) {
+        cache.clear();
+    }
+
+    private static EncodedQuote await(CompletableFuture<EncodedQuote> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
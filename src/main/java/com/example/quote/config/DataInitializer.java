@@ -19,6 +19,15 @@ public class DataInitializer implements CommandLineRunner {
 
     @Override
     public void run(String... args) {
+        int backfilled = quoteRepository.backfillAuthorKeys();
+        if (backfilled > 0) {
+            log.info("Backfilled normalized author for {} quotes", backfilled);
+        }
+        int versioned = quoteRepository.backfillVersions();
+        if (versioned > 0) {
+            log.info("Backfilled version for {} quotes", versioned);
+        }
+
         if (quoteRepository.count() == 0) {
             log.info("Initializing database with sample quotes...");
             
@@ -26,7 +35,6 @@ public class DataInitializer implements CommandLineRunner {
                 Quote.builder()
                     .text("The only way to do great work is to love what you do.")
                     .author("Steve Jobs")
-                    .isDailyQuote(true)
                     .build(),
                 Quote.builder()
                     .text("Innovation distinguishes between a leader and a follower.")
@@ -0,0 +1,323 @@
+package com.example.quote.config;
+
+import com.example.quote.audit.AuditLog;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "quote")
+public class QuoteProperties {
+
+    /**
+     * Where reads are served from: {@code database} (default) or {@code memory}, which loads the whole
+     * catalog into a columnar in-memory store at startup and keeps it current on every write
+     */
+    private String readModel = "database";
+
+    private final Daily daily = new Daily();
+    private final Pagination pagination = new Pagination();
+    private final Search search = new Search();
+    private final BatchGet batchGet = new BatchGet();
+    private final RandomPick random = new RandomPick();
+    private final Bulk bulk = new Bulk();
+    private final Concurrency concurrency = new Concurrency();
+    private final RateLimit rateLimit = new RateLimit();
+    private final Audit audit = new Audit();
+    private final Cache cache = new Cache();
+    private final Scheduler scheduler = new Scheduler();
+    private final Snapshot snapshot = new Snapshot();
+    private final EventStream stream = new EventStream();
+    private final Popularity popularity = new Popularity();
+
+    @Data
+    public static class Daily {
+
+        /**
+         * How long clients and CDNs may reuse the daily quote before revalidating it
+         */
+        private Duration maxAge = Duration.ofMinutes(1);
+
+        /**
+         * Time zone whose midnight rotates the daily quote when a request does not name one
+         */
+        private ZoneId zone = ZoneOffset.UTC;
+    }
+
+    @Data
+    public static class Pagination {
+
+        /**
+         * Page size used when a cursor is given without a limit
+         */
+        private int defaultSize = 50;
+
+        /**
+         * Upper bound for the limit parameter so one request cannot materialize the whole table
+         */
+        private int maxSize = 500;
+    }
+
+    @Data
+    public static class Search {
+
+        private int defaultLimit = 20;
+
+        private int maxLimit = 100;
+    }
+
+    @Data
+    public static class BatchGet {
+
+        /**
+         * Most IDs one batch fetch may ask for; larger requests are rejected with 400
+         */
+        private int maxIds = 200;
+    }
+
+    @Data
+    public static class RandomPick {
+
+        /**
+         * Most quotes one {@code /random?count=} call may ask for
+         */
+        private int maxCount = 50;
+
+        /**
+         * Most IDs one call may exclude; each excluded ID the sampler draws costs an extra draw
+         */
+        private int maxExclude = 200;
+    }
+
+    @Data
+    public static class Bulk {
+
+        /**
+         * Rows written per JDBC batch and per transaction during imports
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Row errors listed in an import report; further failures are only counted
+         */
+        private int maxReportedErrors = 1000;
+    }
+
+    @Data
+    public static class Concurrency {
+
+        /**
+         * Bound the number of API requests in flight. Meant for virtual-thread mode, where the
+         * servlet container no longer caps concurrency and requests would pile up on the connection pool.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Requests allowed in flight at once; a small multiple of the connection pool size
+         */
+        private int maxInFlight = 80;
+
+        /**
+         * How long a request may wait for a slot before it is rejected with 503
+         */
+        private Duration acquireTimeout = Duration.ofMillis(500);
+
+        /**
+         * Paths that never need a database connection: the daily quote is served from memory, and event stream
+         * subscribers stay connected for minutes while only waiting for events
+         */
+        private List<String> exemptPaths = List.of("/api/v1/quotes/daily", "/api/v1/quotes/stream");
+    }
+
+    @Data
+    public static class RateLimit {
+
+        /**
+         * Throttle API requests per client and shed expensive requests when the service is overloaded
+         */
+        private boolean enabled = true;
+
+        /**
+         * Tokens a client may spend in a burst
+         */
+        private int capacity = 500;
+
+        /**
+         * Tokens each client gets back per second
+         */
+        private int refillPerSecond = 100;
+
+        /**
+         * Tokens charged for a full-table read: the unpaged quote list and the export
+         */
+        private int fullScanCost = 20;
+
+        /**
+         * Tokens charged for a bulk import, update or delete
+         */
+        private int bulkCost = 50;
+
+        /**
+         * Clients tracked individually; beyond this, new clients share one bucket until idle ones are evicted
+         */
+        private int maxClients = 100_000;
+
+        /**
+         * How often clients whose bucket has refilled completely are forgotten
+         */
+        private Duration sweepInterval = Duration.ofMinutes(1);
+
+        /**
+         * Expensive requests are shed with 503 while this many API requests are in flight
+         */
+        private int shedInFlight = 150;
+
+        /**
+         * Expensive requests are shed with 503 while this many threads wait for a database connection
+         */
+        private int shedPendingConnections = 5;
+
+        /**
+         * Paths served from memory, which are neither throttled nor shed
+         */
+        private List<String> exemptPaths = List.of("/api/v1/quotes/daily");
+    }
+
+    @Data
+    public static class Audit {
+
+        /**
+         * Ring buffer capacity, rounded up to a power of two
+         */
+        private int bufferSize = 8192;
+
+        /**
+         * Fraction of read events that are recorded; writes are always recorded
+         */
+        private double readSampleRate = 0.01;
+
+        /**
+         * What a request thread does when the buffer is full
+         */
+        private AuditLog.OverflowPolicy overflowPolicy = AuditLog.OverflowPolicy.DROP;
+
+        /**
+         * Maximum events handed to the sink at once
+         */
+        private int batchSize = 256;
+
+        /**
+         * How long the writer sleeps when the buffer is empty
+         */
+        private Duration flushInterval = Duration.ofMillis(50);
+
+        /**
+         * How long a producer waits for space under the {@code BLOCK} policy before its event is dropped
+         */
+        private Duration blockTimeout = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Cache {
+
+        /**
+         * Maximum number of quotes held by the quote-by-ID cache
+         */
+        private int maxSize = 10_000;
+
+        /**
+         * Independently locked segments; more segments means less contention between readers
+         */
+        private int segments = 16;
+
+        /**
+         * Cached JSON bodies at least this large also keep a precomputed gzip copy
+         */
+        private int gzipMinSize = 256;
+    }
+
+    @Data
+    public static class Scheduler {
+
+        /**
+         * How often each node checks for due jobs and for runs completed by other nodes
+         */
+        private Duration pollInterval = Duration.ofSeconds(10);
+
+        /**
+         * How long a node may hold a job lease before another node is allowed to take the run over
+         */
+        private Duration leaseTtl = Duration.ofMinutes(1);
+
+        /**
+         * Identifies this node in job leases; defaults to host name, process ID and a random suffix
+         */
+        private String nodeId;
+    }
+
+    @Data
+    public static class Snapshot {
+
+        /**
+         * Binary copy of the catalog used to build the in-memory indexes at startup without going through
+         * JPA; written after a database rebuild and on shutdown. Unset (the default) disables snapshots.
+         */
+        private Path path;
+    }
+
+    @Data
+    public static class EventStream {
+
+        /**
+         * Events queued per subscriber; a subscriber that falls this far behind is disconnected and has to resume
+         */
+        private int bufferSize = 256;
+
+        /**
+         * Recent events kept for subscribers resuming with {@code Last-Event-ID}
+         */
+        private int replaySize = 1024;
+
+        /**
+         * Comment lines sent to idle subscribers so proxies keep the connection open and dead clients are noticed
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        /**
+         * Connections are closed after this long; clients reconnect and resume
+         */
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class Popularity {
+
+        /**
+         * How often view counts are written to the database and the rankings recomputed
+         */
+        private Duration flushInterval = Duration.ofSeconds(10);
+
+        /**
+         * Granularity of the trailing windows; a window covers the current bucket plus whole earlier ones,
+         * so it may count up to one bucket more than its length
+         */
+        private Duration bucketSize = Duration.ofMinutes(1);
+
+        /**
+         * Trailing windows that {@code /top} ranks, besides all time
+         */
+        private List<Duration> windows = List.of(Duration.ofHours(1), Duration.ofDays(1), Duration.ofDays(7));
+
+        /**
+         * Quotes kept per ranking, and so the largest {@code limit} of {@code /top}
+         */
+        private int rankedQuotes = 100;
+
+        private int defaultLimit = 10;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.quote.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -35,6 +36,8 @@ public class SecurityConfig {
                         .requestMatchers("/h2-console/**").permitAll()
                         .anyRequest().authenticated()
                 )
+                // Lets Prometheus and operators reach the authenticated actuator endpoints
+                .httpBasic(Customizer.withDefaults())
                 .headers(headers -> headers
                         .frameOptions(frame -> frame.sameOrigin())
                 );
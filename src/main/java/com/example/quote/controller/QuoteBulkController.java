@@ -0,0 +1,89 @@
+package com.example.quote.controller;
+
+import com.example.quote.dto.BulkChangeResponse;
+import com.example.quote.dto.BulkDeleteRequest;
+import com.example.quote.dto.BulkImportResponse;
+import com.example.quote.dto.BulkUpdateRequest;
+import com.example.quote.exception.InvalidRequestException;
+import com.example.quote.service.QuoteBulkService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.example.quote.controller.QuoteController.APPLICATION_NDJSON_VALUE;
+
+@RestController
+@RequestMapping("/api/v1/quotes")
+@RequiredArgsConstructor
+public class QuoteBulkController {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final QuoteBulkService quoteBulkService;
+
+    /**
+     * POST /api/v1/quotes/bulk (Content-Type: application/x-ndjson) - Import one quote per line
+     */
+    @PostMapping(path = "/bulk", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkImportResponse> importNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(quoteBulkService.importNdjson(body));
+    }
+
+    /**
+     * POST /api/v1/quotes/bulk (Content-Type: text/csv) - Import quotes from CSV with a text,author header
+     */
+    @PostMapping(path = "/bulk", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<BulkImportResponse> importCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(quoteBulkService.importCsv(body));
+    }
+
+    /**
+     * POST /api/v1/quotes/bulk-delete - Delete quotes by ID list or by author in one transaction
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkChangeResponse> bulkDelete(@RequestBody BulkDeleteRequest request) {
+        return ResponseEntity.ok(quoteBulkService.deleteQuotes(request.getIds(), request.getAuthor()));
+    }
+
+    /**
+     * POST /api/v1/quotes/bulk-update - Reassign quotes, by ID list or by author, to another author
+     */
+    @PostMapping("/bulk-update")
+    public ResponseEntity<BulkChangeResponse> bulkUpdate(@Valid @RequestBody BulkUpdateRequest request) {
+        return ResponseEntity.ok(quoteBulkService.reassignAuthor(request.getIds(), request.getAuthor(),
+                request.getNewAuthor()));
+    }
+
+    /**
+     * GET /api/v1/quotes/export?format=ndjson|csv - Stream the whole catalog as a download
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportQuotes(@RequestParam(defaultValue = "ndjson") String format) {
+        StreamingResponseBody body;
+        MediaType contentType;
+        switch (format) {
+            case "ndjson" -> {
+                body = quoteBulkService::exportNdjson;
+                contentType = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+            }
+            case "csv" -> {
+                body = quoteBulkService::exportCsv;
+                contentType = MediaType.parseMediaType(TEXT_CSV_VALUE + ";charset=UTF-8");
+            }
+            default -> throw new InvalidRequestException("Unsupported export format: " + format);
+        }
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("quotes." + format).build().toString())
+                .body(body);
+    }
+}
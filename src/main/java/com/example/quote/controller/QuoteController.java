@@ -1,39 +1,119 @@
 package com.example.quote.controller;
 
+import com.example.quote.cache.DailyQuote;
+import com.example.quote.cache.EncodedQuote;
+import com.example.quote.cache.QuoteBatch;
+import com.example.quote.config.QuoteProperties;
+import com.example.quote.dto.AuthorSummary;
+import com.example.quote.dto.BatchGetRequest;
+import com.example.quote.dto.ProjectedQuotes;
+import com.example.quote.dto.QuoteField;
+import com.example.quote.dto.QuotePage;
 import com.example.quote.dto.QuoteRequest;
 import com.example.quote.dto.QuoteResponse;
+import com.example.quote.dto.TopQuote;
+import com.example.quote.exception.InvalidRequestException;
+import com.example.quote.exception.PreconditionFailedException;
+import com.example.quote.service.QuoteBulkService;
 import com.example.quote.service.QuoteService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/quotes")
 @RequiredArgsConstructor
 public class QuoteController {
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final String DAILY_TAG_SUFFIX = "-daily";
+
     private final QuoteService quoteService;
+    private final QuoteProperties quoteProperties;
+    private final QuoteBulkService quoteBulkService;
 
     /**
      * GET /api/v1/quotes - Get all quotes
+     * With {@code after} and/or {@code limit} a keyset page is returned instead, and the next
+     * page is advertised in the {@code Link} and {@code X-Next-Cursor} headers.
+     * {@code fields=id,text} returns only the listed fields of each quote.
      */
     @GetMapping
-    public ResponseEntity<List<QuoteResponse>> getAllQuotes() {
-        List<QuoteResponse> quotes = quoteService.getAllQuotes();
-        return ResponseEntity.ok(quotes);
+    public ResponseEntity<?> getAllQuotes(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (after == null && limit == null) {
+            List<QuoteResponse> quotes = quoteService.getAllQuotes();
+            return ResponseEntity.ok(project(quotes, fields));
+        }
+        QuoteProperties.Pagination pagination = quoteProperties.getPagination();
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : pagination.getDefaultSize(), pagination.getMaxSize()));
+        QuotePage page = quoteService.getQuotePage(after != null ? after : 0L, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.nextCursor())
+                    .replaceQueryParam("limit", pageSize)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                    .header("X-Next-Cursor", page.nextCursor().toString());
+        }
+        return response.body(project(page.quotes(), fields));
+    }
+
+    /**
+     * GET /api/v1/quotes (Accept: application/x-ndjson) - Stream all quotes, one JSON object per line
+     * Rows are written as they are read, so memory use does not depend on the table size.
+     */
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllQuotes() {
+        StreamingResponseBody body = quoteBulkService::exportNdjson;
+        return ResponseEntity.ok().body(body);
+    }
+
+    /**
+     * GET /api/v1/quotes?ids=1,2,3 - Get many quotes in one call
+     * Quotes come back in request order; IDs that do not exist are listed under {@code missing}.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<byte[]> getQuotesByIds(@RequestParam List<Long> ids) {
+        return batch(ids);
+    }
+
+    /**
+     * POST /api/v1/quotes/batch-get - Same as {@code GET ?ids=}, for ID lists too long for a URL
+     */
+    @PostMapping("/batch-get")
+    public ResponseEntity<byte[]> batchGetQuotes(@Valid @RequestBody BatchGetRequest request) {
+        return batch(request.getIds());
     }
 
     /**
      * GET /api/v1/quotes/{id} - Get a specific quote by ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<QuoteResponse> getQuoteById(@PathVariable Long id) {
-        QuoteResponse quote = quoteService.getQuoteById(id);
-        return ResponseEntity.ok(quote);
+    public ResponseEntity<byte[]> getQuoteById(
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        EncodedQuote quote = quoteService.getEncodedQuote(id);
+        return encoded(ResponseEntity.ok(), quote, etag(quote.quote()), acceptEncoding);
     }
 
     /**
@@ -47,13 +127,16 @@ public class QuoteController {
 
     /**
      * PUT /api/v1/quotes/{id} - Update an existing quote
+     * With {@code If-Match} carrying the ETag of a previous read, the update only applies if nobody changed
+     * the quote since; otherwise 412 is returned.
      */
     @PutMapping("/{id}")
     public ResponseEntity<QuoteResponse> updateQuote(
             @PathVariable Long id,
-            @Valid @RequestBody QuoteRequest request) {
-        QuoteResponse quote = quoteService.updateQuote(id, request);
-        return ResponseEntity.ok(quote);
+            @Valid @RequestBody QuoteRequest request,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        QuoteResponse quote = quoteService.updateQuote(id, request, expectedVersions(ifMatch));
+        return ResponseEntity.ok().eTag(etag(quote)).body(quote);
     }
 
     /**
@@ -66,38 +149,283 @@ public class QuoteController {
     }
 
     /**
-     * GET /api/v1/quotes/daily - Get the quote of the day
+     * GET /api/v1/quotes/daily?tz= - Get the quote of the day in the given time zone (default zone if omitted)
+     * Conditional requests matching the ETag or Last-Modified validators get 304 without a body.
      */
     @GetMapping("/daily")
-    public ResponseEntity<QuoteResponse> getDailyQuote() {
-        QuoteResponse quote = quoteService.getDailyQuote();
-        return ResponseEntity.ok(quote);
+    public ResponseEntity<byte[]> getDailyQuote(
+            @RequestParam(required = false) String tz,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        DailyQuote daily = quoteService.getDailyQuoteSnapshot(tz == null ? quoteService.getDefaultZone() : zone(tz));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(quoteProperties.getDaily().getMaxAge()).cachePublic())
+                .lastModified(daily.lastModified());
+        return encoded(response, daily.body(), daily.etag(), acceptEncoding);
     }
 
     /**
-     * GET /api/v1/quotes/random - Get a random quote
+     * GET /api/v1/quotes/random?author=&maxLength=&exclude=&count=&weighted= - Get a random quote, optionally filtered
+     * Without {@code count} a single quote is returned (404 if none matches); with it, a JSON array of up to
+     * {@code count} distinct quotes in random order. With {@code weighted=true}, recently viewed quotes come up
+     * more often.
      */
     @GetMapping("/random")
-    public ResponseEntity<QuoteResponse> getRandomQuote() {
-        QuoteResponse quote = quoteService.getRandomQuote();
-        return ResponseEntity.ok(quote);
+    public ResponseEntity<byte[]> getRandomQuote(
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) Integer maxLength,
+            @RequestParam(required = false) Integer count,
+            @RequestParam(required = false) List<Long> exclude,
+            @RequestParam(defaultValue = "false") boolean weighted,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        QuoteProperties.RandomPick random = quoteProperties.getRandom();
+        if (maxLength != null && maxLength < 1) {
+            throw new InvalidRequestException("maxLength must be positive");
+        }
+        if (count != null && (count < 1 || count > random.getMaxCount())) {
+            throw new InvalidRequestException("count must be between 1 and " + random.getMaxCount());
+        }
+        if (exclude != null && exclude.contains(null)) {
+            throw new InvalidRequestException("Excluded IDs must not be empty");
+        }
+        Set<Long> excluded = exclude == null ? Set.of() : new HashSet<>(exclude);
+        if (excluded.size() > random.getMaxExclude()) {
+            throw new InvalidRequestException("At most " + random.getMaxExclude() + " IDs can be excluded, got " + excluded.size());
+        }
+        String authorFilter = author == null || author.isBlank() ? null : author;
+        int lengthLimit = maxLength != null ? maxLength : Integer.MAX_VALUE;
+        if (count == null) {
+            EncodedQuote quote = quoteService.getEncodedRandomQuote(authorFilter, lengthLimit, excluded, weighted);
+            return encoded(ResponseEntity.ok(), quote, null, acceptEncoding);
+        }
+        List<EncodedQuote> quotes = quoteService.getEncodedRandomQuotes(authorFilter, lengthLimit, excluded, count, weighted);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(QuoteBatch.jsonArray(quotes));
+    }
+
+    /**
+     * GET /api/v1/quotes/top?window=24h&limit= - Most viewed quotes over a trailing window, or of all time
+     * Rankings are recomputed whenever view counts are flushed, so they trail live traffic by up to one interval.
+     */
+    @GetMapping("/top")
+    public ResponseEntity<List<TopQuote>> getTopQuotes(
+            @RequestParam(defaultValue = "all") String window,
+            @RequestParam(required = false) Integer limit) {
+        QuoteProperties.Popularity popularity = quoteProperties.getPopularity();
+        int size = Math.max(1, Math.min(limit != null ? limit : popularity.getDefaultLimit(), popularity.getRankedQuotes()));
+        List<TopQuote> quotes = quoteService.getTopQuotes(window(window), size);
+        return ResponseEntity.ok(quotes);
     }
 
     /**
-     * GET /api/v1/quotes/author/{author} - Get all quotes by a specific author
+     * GET /api/v1/quotes/author/{author} - Get all quotes by a specific author (case-insensitive)
      */
     @GetMapping("/author/{author}")
-    public ResponseEntity<List<QuoteResponse>> getQuotesByAuthor(@PathVariable String author) {
+    public ResponseEntity<?> getQuotesByAuthor(
+            @PathVariable String author,
+            @RequestParam(required = false) String fields) {
         List<QuoteResponse> quotes = quoteService.getQuotesByAuthor(author);
-        return ResponseEntity.ok(quotes);
+        return ResponseEntity.ok(project(quotes, fields));
     }
 
     /**
-     * GET /api/v1/quotes/authors - Get all unique authors
+     * GET /api/v1/quotes/search?q= - Full-text search over quote text and author, best match first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchQuotes(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        QuoteProperties.Search search = quoteProperties.getSearch();
+        int maxResults = Math.max(1, Math.min(limit != null ? limit : search.getDefaultLimit(), search.getMaxLimit()));
+        List<QuoteResponse> quotes = quoteService.searchQuotes(query, maxResults);
+        return ResponseEntity.ok(project(quotes, fields));
+    }
+
+    /**
+     * GET /api/v1/quotes/authors - Get all unique authors, optionally filtered by name prefix
      */
     @GetMapping("/authors")
-    public ResponseEntity<List<String>> getAllAuthors() {
-        List<String> authors = quoteService.getAllAuthors();
+    public ResponseEntity<List<String>> getAllAuthors(@RequestParam(required = false) String prefix) {
+        List<String> authors = quoteService.getAllAuthors(prefix);
         return ResponseEntity.ok(authors);
     }
+
+    /**
+     * GET /api/v1/quotes/authors/counts - Get unique authors with their number of quotes
+     */
+    @GetMapping("/authors/counts")
+    public ResponseEntity<List<AuthorSummary>> getAuthorSummaries(@RequestParam(required = false) String prefix) {
+        List<AuthorSummary> authors = quoteService.getAuthorSummaries(prefix);
+        return ResponseEntity.ok(authors);
+    }
+
+    private ResponseEntity<byte[]> batch(List<Long> ids) {
+        int maxIds = quoteProperties.getBatchGet().getMaxIds();
+        if (ids.size() > maxIds) {
+            throw new InvalidRequestException("At most " + maxIds + " IDs can be fetched at once, got " + ids.size());
+        }
+        if (ids.contains(null)) {
+            throw new InvalidRequestException("IDs must not be empty");
+        }
+        QuoteBatch batch = quoteService.getEncodedQuotes(ids);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(batch.json());
+    }
+
+    /**
+     * The quotes, or only the fields named by {@code fields} if given
+     */
+    private static Object project(List<QuoteResponse> quotes, String fields) {
+        return fields == null ? quotes : new ProjectedQuotes(quotes, QuoteField.parse(fields));
+    }
+
+    /**
+     * Write a pre-serialized body as is, choosing the gzip copy when the client accepts it.
+     * The gzip representation gets its own entity tag, since its bytes differ.
+     */
+    private static ResponseEntity<byte[]> encoded(ResponseEntity.BodyBuilder response, EncodedQuote quote,
+                                                  String etag, String acceptEncoding) {
+        response.contentType(MediaType.APPLICATION_JSON).varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (quote.gzip() != null && acceptsGzip(acceptEncoding)) {
+            if (etag != null) {
+                response.eTag(etag.substring(0, etag.length() - 1) + "-gzip\"");
+            }
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(quote.gzip());
+        }
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(quote.json());
+    }
+
+    /**
+     * Strong entity tag of a quote body: its version, plus a marker while it is the daily quote, since
+     * rotation flips {@code isDailyQuote} without touching the version. The gzip variant differs only in suffix.
+     */
+    private static String etag(QuoteResponse quote) {
+        return "\"v" + quote.getVersion() + (quote.isDailyQuote() ? DAILY_TAG_SUFFIX : "") + "\"";
+    }
+
+    /**
+     * Versions named by the strong tags of an {@code If-Match} list, or {@code null} for none or {@code *}.
+     * Weak tags never match, as If-Match requires strong comparison, and neither do tags this service did not
+     * issue; if no tag is left, the precondition has already failed.
+     */
+    private static Set<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (String tag : entityTags(ifMatch)) {
+            if (tag.equals("*")) {
+                return null;
+            }
+            Long version = version(tag);
+            if (version != null) {
+                versions.add(version);
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException("If-Match " + ifMatch.trim() + " does not match the current version");
+        }
+        return versions;
+    }
+
+    /**
+     * The members of a comma-separated entity-tag list; commas inside a quoted tag do not split it
+     */
+    private static List<String> entityTags(String header) {
+        List<String> tags = new ArrayList<>();
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i <= header.length(); i++) {
+            if (i == header.length() || (header.charAt(i) == ',' && !quoted)) {
+                String tag = header.substring(start, i).trim();
+                if (!tag.isEmpty()) {
+                    tags.add(tag);
+                }
+                start = i + 1;
+            } else if (header.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Version named by one strong tag issued by {@link #etag}, or {@code null} for any other tag
+     */
+    private static Long version(String tag) {
+        if (!tag.startsWith("\"v") || !tag.endsWith("\"") || tag.length() < 4) {
+            return null;
+        }
+        String version = tag.substring(2, tag.length() - 1);
+        if (version.endsWith("-gzip")) {
+            version = version.substring(0, version.length() - "-gzip".length());
+        }
+        if (version.endsWith(DAILY_TAG_SUFFIX)) {
+            version = version.substring(0, version.length() - DAILY_TAG_SUFFIX.length());
+        }
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static ZoneId zone(String tz) {
+        try {
+            return ZoneId.of(tz);
+        } catch (DateTimeException e) {
+            throw new InvalidRequestException("Unknown time zone: " + tz);
+        }
+    }
+
+    /**
+     * Window such as {@code 24h}, {@code 7d} or {@code PT1H}; {@code null} for {@code all}
+     */
+    private static Duration window(String window) {
+        if ("all".equalsIgnoreCase(window.trim())) {
+            return null;
+        }
+        try {
+            return DurationStyle.detectAndParse(window.trim());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown window: " + window);
+        }
+    }
+
+    /**
+     * Whether {@code Accept-Encoding} allows gzip: an explicit gzip coding takes precedence over {@code *},
+     * and a q-value of 0 (or one that cannot be parsed) refuses it
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                gzip = Math.max(gzip, qValue(parts));
+            } else if (name.equals("*")) {
+                any = Math.max(any, qValue(parts));
+            }
+        }
+        return (gzip >= 0 ? gzip : any) > 0;
+    }
+
+    private static double qValue(String[] codingParts) {
+        for (int i = 1; i < codingParts.length; i++) {
+            String parameter = codingParts[i].trim();
+            if (parameter.length() > 1 && Character.toLowerCase(parameter.charAt(0)) == 'q' && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
 }
@@ -0,0 +1,27 @@
+package com.example.quote.controller;
+
+import com.example.quote.stream.QuoteEventStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/quotes")
+@RequiredArgsConstructor
+public class QuoteStreamController {
+
+    private final QuoteEventStream quoteEventStream;
+
+    /**
+     * GET /api/v1/quotes/stream - Server-sent events for every committed create, update and delete and
+     * for daily quote rotations. Reconnecting clients send {@code Last-Event-ID} to resume where they left off.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return quoteEventStream.subscribe(lastEventId);
+    }
+}
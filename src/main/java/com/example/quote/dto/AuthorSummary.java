@@ -0,0 +1,16 @@
+package com.example.quote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuthorSummary {
+
+    private String author;
+    private long quoteCount;
+}
@@ -0,0 +1,17 @@
+package com.example.quote.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetRequest {
+
+    @NotNull(message = "IDs are required")
+    private List<Long> ids;
+}
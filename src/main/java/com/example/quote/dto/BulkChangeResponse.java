@@ -0,0 +1,7 @@
+package com.example.quote.dto;
+
+/**
+ * Number of quotes a bulk update or delete changed
+ */
+public record BulkChangeResponse(long affected) {
+}
@@ -0,0 +1,20 @@
+package com.example.quote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Selects quotes either by {@code ids} or by {@code author} (case-insensitive), not both
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteRequest {
+
+    private List<Long> ids;
+
+    private String author;
+}
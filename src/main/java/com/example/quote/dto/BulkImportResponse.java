@@ -0,0 +1,22 @@
+package com.example.quote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportResponse {
+
+    private long received;
+    private long imported;
+    private long failed;
+    private List<BulkRowError> errors;
+    /** True when more rows failed than are listed in {@link #errors} */
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,17 @@
+package com.example.quote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkRowError {
+
+    /** 1-based line number for NDJSON; 1-based record number after the header for CSV, blank lines not counted */
+    private long row;
+    private String message;
+}
@@ -0,0 +1,27 @@
+package com.example.quote.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Reassigns quotes, selected like in {@link BulkDeleteRequest}, to {@code newAuthor};
+ * e.g. to merge spellings of the same author
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateRequest {
+
+    private List<Long> ids;
+
+    private String author;
+
+    @NotBlank(message = "New author cannot be empty")
+    @Size(max = 100, message = "Author name cannot exceed 100 characters")
+    private String newAuthor;
+}
@@ -0,0 +1,36 @@
+package com.example.quote.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A list response restricted to the requested fields. Written straight to the generator, so the
+ * fields left out are never looked at, let alone serialized.
+ */
+public record ProjectedQuotes(List<QuoteResponse> quotes, Set<QuoteField> fields) implements JsonSerializable {
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartArray(quotes, quotes.size());
+        for (QuoteResponse quote : quotes) {
+            gen.writeStartObject(quote);
+            for (QuoteField field : fields) {
+                field.write(quote, gen, provider);
+            }
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, provider);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.quote.dto;
+
+import com.example.quote.exception.InvalidRequestException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fields of {@link QuoteResponse} a client can select with {@code ?fields=}, in their default JSON order
+ */
+public enum QuoteField {
+
+    ID("id"),
+    TEXT("text"),
+    AUTHOR("author"),
+    CREATED_AT("createdAt"),
+    IS_DAILY_QUOTE("isDailyQuote"),
+    VERSION("version");
+
+    private final String jsonName;
+
+    QuoteField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    /**
+     * @param fields comma-separated JSON names, e.g. {@code id,text}
+     * @throws InvalidRequestException if a name is unknown or none is given
+     */
+    public static Set<QuoteField> parse(String fields) {
+        EnumSet<QuoteField> selected = EnumSet.noneOf(QuoteField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                selected.add(Arrays.stream(values())
+                        .filter(field -> field.jsonName.equals(trimmed))
+                        .findFirst()
+                        .orElseThrow(() -> new InvalidRequestException("Unknown field '" + trimmed + "', expected any of "
+                                + Arrays.stream(values()).map(field -> field.jsonName).collect(Collectors.joining(",")))));
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new InvalidRequestException("Select at least one field");
+        }
+        return selected;
+    }
+
+    void write(QuoteResponse quote, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        switch (this) {
+            case ID -> gen.writeNumberField(jsonName, quote.getId());
+            case TEXT -> gen.writeStringField(jsonName, quote.getText());
+            case AUTHOR -> gen.writeStringField(jsonName, quote.getAuthor());
+            // Through the configured serializer, so dates look exactly as in full responses
+            case CREATED_AT -> provider.defaultSerializeField(jsonName, quote.getCreatedAt(), gen);
+            case IS_DAILY_QUOTE -> gen.writeBooleanField(jsonName, quote.isDailyQuote());
+            case VERSION -> gen.writeNumberField(jsonName, quote.getVersion());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.quote.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of quotes ordered by ID; {@code nextCursor} is null on the last page
+ */
+public record QuotePage(List<QuoteResponse> quotes, Long nextCursor) {
+}
@@ -8,11 +8,14 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+// Jackson moves renamed properties to the end; keep the declared order, which QuoteField mirrors
+@JsonPropertyOrder({"id", "text", "author", "createdAt", "isDailyQuote", "version"})
 public class QuoteResponse {
 
     private Long id;
@@ -21,4 +24,6 @@ public class QuoteResponse {
     private LocalDateTime createdAt;
     @JsonProperty("isDailyQuote")
     private boolean isDailyQuote;
+    /** Changes on every update; sent back in {@code If-Match} to update only the version that was read */
+    private long version;
 }
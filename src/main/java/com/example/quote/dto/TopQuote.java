@@ -0,0 +1,7 @@
+package com.example.quote.dto;
+
+/**
+ * A ranked quote with its view count over the requested window
+ */
+public record TopQuote(long views, QuoteResponse quote) {
+}
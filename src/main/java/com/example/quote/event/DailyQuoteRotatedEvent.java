@@ -0,0 +1,10 @@
+package com.example.quote.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published at midnight in the default time zone when the daily quote changes;
+ * {@code quoteId} is 0 when the catalog is empty
+ */
+public record DailyQuoteRotatedEvent(LocalDate date, long quoteId) {
+}
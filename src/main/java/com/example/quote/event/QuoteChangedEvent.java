@@ -0,0 +1,26 @@
+package com.example.quote.event;
+
+import com.example.quote.model.QuoteSnapshot;
+
+/**
+ * Published by the service write paths whenever a quote is created, updated or deleted.
+ * {@code previous} is null for creations and {@code current} is null for deletions.
+ */
+public record QuoteChangedEvent(Type type, QuoteSnapshot previous, QuoteSnapshot current) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static QuoteChangedEvent created(QuoteSnapshot quote) {
+        return new QuoteChangedEvent(Type.CREATED, null, quote);
+    }
+
+    public static QuoteChangedEvent updated(QuoteSnapshot previous, QuoteSnapshot current) {
+        return new QuoteChangedEvent(Type.UPDATED, previous, current);
+    }
+
+    public static QuoteChangedEvent deleted(QuoteSnapshot quote) {
+        return new QuoteChangedEvent(Type.DELETED, quote, null);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.quote.exception;
+
+/**
+ * A conditional write whose {@code If-Match} no longer matches the current version of the quote
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.quote.index;
+
+import com.example.quote.dto.AuthorSummary;
+import com.example.quote.model.Quote;
+import com.example.quote.model.QuoteSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted author to quote-count directory keyed by the normalized author name.
+ * Serves the author listing and prefix lookups from memory; counts are adjusted on every write.
+ * An author is listed under the spelling most recently written, so merging spellings that differ only
+ * in case or spacing shows the new one.
+ */
+@Component
+public class AuthorDirectory implements QuoteIndex {
+
+    private final ConcurrentSkipListMap<String, AuthorCount> authors = new ConcurrentSkipListMap<>();
+
+    @Override
+    public void clear() {
+        authors.clear();
+    }
+
+    @Override
+    public void add(QuoteSnapshot quote) {
+        authors.compute(Quote.normalizeAuthor(quote.author()), (key, existing) -> existing == null
+                ? new AuthorCount(quote.author().trim(), 1)
+                : new AuthorCount(existing.name(), existing.count() + 1));
+    }
+
+    @Override
+    public void remove(QuoteSnapshot quote) {
+        authors.computeIfPresent(Quote.normalizeAuthor(quote.author()), (key, existing) -> existing.count() <= 1
+                ? null
+                : new AuthorCount(existing.name(), existing.count() - 1));
+    }
+
+    @Override
+    public void replace(QuoteSnapshot previous, QuoteSnapshot current) {
+        String key = Quote.normalizeAuthor(current.author());
+        if (!Quote.normalizeAuthor(previous.author()).equals(key)) {
+            remove(previous);
+            add(current);
+            return;
+        }
+        String name = current.author().trim();
+        authors.computeIfPresent(key, (k, existing) -> existing.name().equals(name)
+                ? existing
+                : new AuthorCount(name, existing.count()));
+    }
+
+    /**
+     * Author names in case-insensitive order, optionally restricted to a name prefix
+     */
+    public List<String> names(String prefix) {
+        return select(prefix).values().stream().map(AuthorCount::name).toList();
+    }
+
+    public List<AuthorSummary> summaries(String prefix) {
+        return select(prefix).values().stream()
+                .map(author -> new AuthorSummary(author.name(), author.count()))
+                .toList();
+    }
+
+    private NavigableMap<String, AuthorCount> select(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            return authors;
+        }
+        String from = Quote.normalizeAuthor(prefix);
+        return authors.subMap(from, true, from + Character.MAX_VALUE, false);
+    }
+
+    private record AuthorCount(String name, long count) {
+    }
+}
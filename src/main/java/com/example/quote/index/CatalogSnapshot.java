@@ -0,0 +1,203 @@
+package com.example.quote.index;
+
+import com.example.quote.model.CatalogVersion;
+import com.example.quote.model.QuoteSnapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Compact binary copy of the catalog, tagged with the {@link CatalogVersion} it was taken at.
+ * Loading memory-maps the file and decodes it sequentially, which is far cheaper than streaming the
+ * same rows through JDBC and Hibernate. Each author name is stored once and referenced by number
+ * afterwards, so loaded snapshots share author strings the way the indexes expect.
+ *
+ * <p>Layout: header (magic, version), one record per quote in ID order, footer (record count, magic).
+ * Files are written to a temporary sibling and moved into place, so a reader sees a complete file or none.
+ */
+public final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x51534E32; // "QSN2"
+    private static final int FOOTER_MAGIC = 0x51534E45; // "QSNE"
+    private static final int FOOTER_SIZE = Long.BYTES + Integer.BYTES;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private CatalogSnapshot() {
+    }
+
+    /**
+     * Start writing a snapshot of the catalog as of {@code version}; nothing replaces {@code path}
+     * until {@link Writer#commit()}
+     */
+    public static Writer create(Path path, CatalogVersion version) throws IOException {
+        return new Writer(path, version);
+    }
+
+    /**
+     * Push every quote in the snapshot to {@code sink}, in ID order
+     *
+     * @return the number of quotes loaded, or {@code -1} without calling {@code sink} if the file does
+     *         not exist or was taken at a different version
+     * @throws IOException if the file is truncated or corrupt; {@code sink} may have seen some quotes
+     */
+    public static long load(Path path, CatalogVersion expected, Consumer<QuoteSnapshot> sink) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large to map: " + size + " bytes");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+        try {
+            return decode(buffer, expected, sink);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt snapshot " + path, e);
+        }
+    }
+
+    private static long decode(ByteBuffer buffer, CatalogVersion expected, Consumer<QuoteSnapshot> sink)
+            throws IOException {
+        int footer = buffer.limit() - FOOTER_SIZE;
+        if (footer < 0 || buffer.getInt(0) != MAGIC || buffer.getInt(footer + Long.BYTES) != FOOTER_MAGIC) {
+            throw new IOException("Not a complete catalog snapshot");
+        }
+        buffer.position(Integer.BYTES);
+        if (!readVersion(buffer).equals(expected)) {
+            return -1;
+        }
+        long count = buffer.getLong(footer);
+        List<String> authors = new ArrayList<>();
+        byte[] scratch = new byte[512];
+        for (long i = 0; i < count; i++) {
+            long id = buffer.getLong();
+            long version = buffer.getLong();
+            LocalDateTime createdAt = readTimestamp(buffer);
+            int authorRef = buffer.getInt();
+            if (authorRef == authors.size()) {
+                authors.add(readString(buffer, scratch));
+            }
+            String author = authors.get(authorRef);
+            String text = readString(buffer, scratch);
+            sink.accept(new QuoteSnapshot(id, text, author, createdAt, version));
+        }
+        if (buffer.position() != footer) {
+            throw new IOException("Snapshot record count does not match its contents");
+        }
+        return count;
+    }
+
+    private static CatalogVersion readVersion(ByteBuffer buffer) {
+        long count = buffer.getLong();
+        long maxId = buffer.getLong();
+        return new CatalogVersion(count, maxId, readTimestamp(buffer));
+    }
+
+    private static LocalDateTime readTimestamp(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds == NO_TIMESTAMP ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private static String readString(ByteBuffer buffer, byte[] scratch) {
+        int length = buffer.getInt();
+        byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+        buffer.get(bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    public static final class Writer implements Closeable {
+
+        private final Path path;
+        private final Path temporary;
+        private final DataOutputStream out;
+        private final Map<String, Integer> authors = new HashMap<>();
+        private long count;
+        private boolean committed;
+
+        private Writer(Path path, CatalogVersion version) throws IOException {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            this.path = path;
+            this.temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeLong(version.count());
+            out.writeLong(version.maxId());
+            writeTimestamp(version.lastUpdated());
+        }
+
+        /**
+         * Quotes must be written in ID order
+         */
+        public void write(QuoteSnapshot quote) throws IOException {
+            out.writeLong(quote.id());
+            out.writeLong(quote.version());
+            writeTimestamp(quote.createdAt());
+            Integer authorRef = authors.get(quote.author());
+            if (authorRef == null) {
+                authorRef = authors.size();
+                authors.put(quote.author(), authorRef);
+                out.writeInt(authorRef);
+                writeString(quote.author());
+            } else {
+                out.writeInt(authorRef);
+            }
+            writeString(quote.text());
+            count++;
+        }
+
+        /**
+         * Finish the file and atomically replace any previous snapshot with it
+         */
+        public void commit() throws IOException {
+            out.writeLong(count);
+            out.writeInt(FOOTER_MAGIC);
+            out.close();
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        /**
+         * Discards the file unless it was committed
+         */
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+
+        private void writeTimestamp(LocalDateTime timestamp) throws IOException {
+            out.writeLong(timestamp == null ? NO_TIMESTAMP : timestamp.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(timestamp == null ? 0 : timestamp.getNano());
+        }
+
+        private void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+}
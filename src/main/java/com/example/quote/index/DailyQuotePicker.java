@@ -0,0 +1,49 @@
+package com.example.quote.index;
+
+import com.example.quote.config.QuoteProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Computes the daily quote from the calendar date alone: the rendezvous winner of the date's seed over
+ * the ID index. No database writes or locks are needed and every node with the same catalog agrees.
+ * Users see the quote change at their own local midnight because each time zone maps to its local date.
+ * Each day's pick is cached by {@link QuoteIdIndex} and updated by the same writes that change the IDs,
+ * so a pick never refers to a deleted quote or misses a newer winner.
+ */
+@Component
+public class DailyQuotePicker {
+
+    private final QuoteIdIndex quoteIdIndex;
+    private final ZoneId defaultZone;
+
+    public DailyQuotePicker(QuoteIdIndex quoteIdIndex, QuoteProperties quoteProperties) {
+        this.quoteIdIndex = quoteIdIndex;
+        this.defaultZone = quoteProperties.getDaily().getZone();
+    }
+
+    public ZoneId defaultZone() {
+        return defaultZone;
+    }
+
+    public LocalDate today(ZoneId zone) {
+        return LocalDate.now(zone);
+    }
+
+    /**
+     * ID of today's quote in the default zone, or {@link QuoteIdIndex#NONE} when the catalog is empty
+     */
+    public long currentId() {
+        return pick(today(defaultZone));
+    }
+
+    public long pick(LocalDate date) {
+        return quoteIdIndex.rendezvous(seed(date));
+    }
+
+    private static long seed(LocalDate date) {
+        return QuoteIdIndex.weight(0x5DEECE66DL, date.toEpochDay());
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.quote.index;
+
+import com.example.quote.model.QuoteSnapshot;
+import com.example.quote.util.LongIntHashMap;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Dense array of every quote ID, used for constant-time uniform random selection.
+ * Deletes swap the last ID into the freed slot, so the array never has gaps and
+ * each live quote is always picked with probability 1/size.
+ * Rendezvous winners are cached per seed and kept up to date by the writes themselves, under the same lock.
+ */
+@Component
+public class QuoteIdIndex implements QuoteIndex {
+
+    public static final long NONE = 0L;
+
+    /** Seeds are one per calendar date and only a few dates are asked for at a time */
+    private static final int MAX_CACHED_SEEDS = 16;
+
+    private final StampedLock lock = new StampedLock();
+    private final LongIntHashMap positions = new LongIntHashMap(1024);
+    private long[] ids = new long[1024];
+    private int size;
+    /**
+     * Rendezvous winner per seed. Entries are only added while holding the read lock and updated under the
+     * write lock, so an entry always equals a fresh scan of the IDs it is read alongside.
+     */
+    private final Map<Long, Long> winners = new ConcurrentHashMap<>();
+
+    @Override
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            positions.clear();
+            size = 0;
+            winners.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void add(QuoteSnapshot quote) {
+        long stamp = lock.writeLock();
+        try {
+            if (positions.containsKey(quote.id())) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+            }
+            ids[size] = quote.id();
+            positions.put(quote.id(), size++);
+            long added = quote.id();
+            winners.replaceAll((seed, winner) -> outranks(seed, added, winner) ? added : winner);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void remove(QuoteSnapshot quote) {
+        long stamp = lock.writeLock();
+        try {
+            int position = positions.remove(quote.id());
+            if (position == LongIntHashMap.MISSING) {
+                return;
+            }
+            long last = ids[--size];
+            if (position != size) {
+                ids[position] = last;
+                positions.put(last, position);
+            }
+            winners.values().removeIf(winner -> winner == quote.id());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void replace(QuoteSnapshot previous, QuoteSnapshot current) {
+        // IDs never change on update
+    }
+
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int current = size;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                current = size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return a uniformly chosen ID, or {@link #NONE} when the catalog is empty
+     */
+    public long pickRandom() {
+        long stamp = lock.tryOptimisticRead();
+        long[] array = ids;
+        int count = size;
+        long id = count == 0 || count > array.length ? NONE : array[ThreadLocalRandom.current().nextInt(count)];
+        if (lock.validate(stamp)) {
+            return id;
+        }
+        stamp = lock.readLock();
+        try {
+            return size == 0 ? NONE : ids[ThreadLocalRandom.current().nextInt(size)];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Rendezvous (highest random weight) choice: the ID with the highest {@link #weight} for {@code seed}.
+     * Depends only on the seed and the set of IDs, so every node holding the same catalog agrees.
+     *
+     * @return the chosen ID, or {@link #NONE} when the catalog is empty
+     */
+    public long rendezvous(long seed) {
+        long stamp = lock.tryOptimisticRead();
+        Long cached = winners.get(seed);
+        if (cached != null && lock.validate(stamp)) {
+            return cached;
+        }
+        stamp = lock.readLock();
+        try {
+            cached = winners.get(seed);
+            if (cached != null) {
+                return cached;
+            }
+            long best = NONE;
+            for (int i = 0; i < size; i++) {
+                if (best == NONE || outranks(seed, ids[i], best)) {
+                    best = ids[i];
+                }
+            }
+            // Never cache an empty pick, so the first quote of an empty catalog shows up immediately
+            if (best != NONE) {
+                if (winners.size() >= MAX_CACHED_SEEDS) {
+                    winners.clear();
+                }
+                winners.put(seed, best);
+            }
+            return best;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Whether {@code id} beats {@code other} for {@code seed}; ties go to the lower ID
+     */
+    private static boolean outranks(long seed, long id, long other) {
+        long weight = weight(seed, id);
+        long otherWeight = weight(seed, other);
+        return weight > otherWeight || (weight == otherWeight && id < other);
+    }
+
+    /**
+     * SplitMix64 finalizer over the seed and ID; well spread even for consecutive IDs and seeds
+     */
+    public static long weight(long seed, long id) {
+        long z = seed + id * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
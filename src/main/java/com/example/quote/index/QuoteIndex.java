@@ -0,0 +1,27 @@
+package com.example.quote.index;
+
+import com.example.quote.model.QuoteSnapshot;
+
+/**
+ * An in-memory structure derived from the quote catalog.
+ * Implementations are rebuilt at startup and then maintained incrementally by {@link QuoteIndexManager}.
+ */
+public interface QuoteIndex {
+
+    void clear();
+
+    void add(QuoteSnapshot quote);
+
+    void remove(QuoteSnapshot quote);
+
+    default void replace(QuoteSnapshot previous, QuoteSnapshot current) {
+        remove(previous);
+        add(current);
+    }
+
+    /**
+     * Called once the rebuild started by {@link #clear()} has added every quote
+     */
+    default void finishRebuild() {
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.quote.index;
+
+import com.example.quote.config.QuoteProperties;
+import com.example.quote.event.QuoteChangedEvent;
+import com.example.quote.metrics.QuoteMetrics;
+import com.example.quote.model.CatalogVersion;
+import com.example.quote.model.QuoteSnapshot;
+import com.example.quote.repository.QuoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+public class QuoteIndexManager {
+
+    private final QuoteRepository quoteRepository;
+    private final List<QuoteIndex> indexes;
+    private final QuoteMetrics quoteMetrics;
+    private final Path snapshotPath;
+
+    /** Catalog version of the snapshot file on disk, or {@code null} if there is none */
+    private volatile CatalogVersion snapshotVersion;
+
+    public QuoteIndexManager(QuoteRepository quoteRepository, List<QuoteIndex> indexes,
+                             QuoteMetrics quoteMetrics, QuoteProperties quoteProperties) {
+        this.quoteRepository = quoteRepository;
+        this.indexes = indexes;
+        this.quoteMetrics = quoteMetrics;
+        this.snapshotPath = quoteProperties.getSnapshot().getPath();
+    }
+
+    /**
+     * Build every index from a single pass over the catalog once the application (and its seed data) is ready.
+     * The pass reads the snapshot file if it matches the current catalog version, and the database otherwise.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        // Read the version before the rows: a write racing the pass then makes the snapshot look stale, never current
+        CatalogVersion version = quoteRepository.findCatalogVersion();
+        String source = "snapshot";
+        long count = loadSnapshot(version);
+        if (count < 0) {
+            source = "database";
+            count = loadDatabase(version);
+        }
+        indexes.forEach(QuoteIndex::finishRebuild);
+        long elapsed = System.nanoTime() - start;
+        quoteMetrics.catalogLoad(source).record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Built {} quote indexes over {} quotes from the {} in {} ms",
+                indexes.size(), count, source, elapsed / 1_000_000);
+    }
+
+    /**
+     * Refresh the snapshot on shutdown if the catalog changed since it was written, so the next start is fast
+     */
+    @EventListener(ContextClosedEvent.class)
+    @Transactional(readOnly = true)
+    public void saveSnapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        CatalogVersion version = quoteRepository.findCatalogVersion();
+        if (version.equals(snapshotVersion)) {
+            return;
+        }
+        try (CatalogSnapshot.Writer writer = CatalogSnapshot.create(snapshotPath, version);
+             Stream<QuoteSnapshot> quotes = quoteRepository.streamAllSnapshots()) {
+            for (QuoteSnapshot quote : (Iterable<QuoteSnapshot>) quotes::iterator) {
+                writer.write(quote);
+            }
+            writer.commit();
+            snapshotVersion = version;
+            log.info("Wrote catalog snapshot of {} quotes to {}", version.count(), snapshotPath);
+        } catch (IOException e) {
+            log.warn("Could not write catalog snapshot to {}", snapshotPath, e);
+        }
+    }
+
+    private long loadSnapshot(CatalogVersion version) {
+        if (snapshotPath == null) {
+            return -1;
+        }
+        indexes.forEach(QuoteIndex::clear);
+        try {
+            long count = CatalogSnapshot.load(snapshotPath, version, this::addToIndexes);
+            if (count >= 0) {
+                snapshotVersion = version;
+            }
+            return count;
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable catalog snapshot {}", snapshotPath, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Also writes a fresh snapshot along the way when snapshots are enabled
+     */
+    private long loadDatabase(CatalogVersion version) {
+        indexes.forEach(QuoteIndex::clear);
+        CatalogSnapshot.Writer writer = openSnapshot(version);
+        long count = 0;
+        try (Stream<QuoteSnapshot> quotes = quoteRepository.streamAllSnapshots()) {
+            for (QuoteSnapshot quote : (Iterable<QuoteSnapshot>) quotes::iterator) {
+                addToIndexes(quote);
+                writer = writeSnapshot(writer, quote);
+                count++;
+            }
+        } catch (RuntimeException e) {
+            discard(writer);
+            throw e;
+        }
+        if (writer != null) {
+            try {
+                writer.commit();
+                snapshotVersion = version;
+            } catch (IOException e) {
+                log.warn("Could not write catalog snapshot to {}", snapshotPath, e);
+                discard(writer);
+            }
+        }
+        return count;
+    }
+
+    private void addToIndexes(QuoteSnapshot quote) {
+        for (QuoteIndex index : indexes) {
+            index.add(quote);
+        }
+    }
+
+    private CatalogSnapshot.Writer openSnapshot(CatalogVersion version) {
+        if (snapshotPath == null) {
+            return null;
+        }
+        try {
+            return CatalogSnapshot.create(snapshotPath, version);
+        } catch (IOException e) {
+            log.warn("Could not write catalog snapshot to {}", snapshotPath, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the writer, or {@code null} once writing has failed
+     */
+    private CatalogSnapshot.Writer writeSnapshot(CatalogSnapshot.Writer writer, QuoteSnapshot quote) {
+        if (writer == null) {
+            return null;
+        }
+        try {
+            writer.write(quote);
+            return writer;
+        } catch (IOException e) {
+            log.warn("Could not write catalog snapshot to {}", snapshotPath, e);
+            discard(writer);
+            return null;
+        }
+    }
+
+    private static void discard(CatalogSnapshot.Writer writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.debug("Could not remove partial catalog snapshot", e);
+        }
+    }
+
+    /**
+     * Apply committed changes; runs after commit so rolled back writes never reach the indexes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuoteChanged(QuoteChangedEvent event) {
+        for (QuoteIndex index : indexes) {
+            switch (event.type()) {
+                case CREATED -> index.add(event.current());
+                case UPDATED -> index.replace(event.previous(), event.current());
+                case DELETED -> index.remove(event.previous());
+            }
+        }
+    }
+}
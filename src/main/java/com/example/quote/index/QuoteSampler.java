@@ -0,0 +1,467 @@
+package com.example.quote.index;
+
+import com.example.quote.model.Quote;
+import com.example.quote.model.QuoteSnapshot;
+import com.example.quote.util.LongIntHashMap;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Quote IDs grouped for filtered random sampling: one dense bucket per text length and one per author.
+ * A Fenwick tree over the length buckets' sizes maps a rank among the quotes of at most a given length to
+ * its bucket in {@code O(log L)}, so a length-limited pick never looks at longer quotes.
+ *
+ * <p>Samples are drawn without replacement with a lazy Fisher-Yates shuffle that only records the positions
+ * it swaps. Excluded or filtered-out IDs are skipped, which keeps the sample uniform over the IDs that
+ * remain. A call costs {@code O(count + excluded)} for the whole catalog and at most the author's quote
+ * count when an author is given, never the catalog size.
+ *
+ * <p>Weighted samples favour popular quotes: a quote weighs one plus its views as last reported by
+ * {@link #updateWeights}. Every length bucket keeps a Fenwick tree over its quotes' weights and a second tree
+ * sums the buckets, so a weighted pick descends both in {@code O(log L + log n)}. Drawn and excluded quotes are
+ * subtracted from the descent rather than redrawn, which keeps the draw exact without replacement at
+ * {@code O(count + excluded)} descents. Within one author the weighted sample ranks the author's quotes by
+ * exponential keys, at the cost of that author's quote count.
+ */
+@Component
+public class QuoteSampler implements QuoteIndex {
+
+    /** Texts this long or longer share the last length bucket */
+    static final int LENGTH_BUCKETS = 512;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Bucket[] byLength = new Bucket[LENGTH_BUCKETS];
+    /** Fenwick tree over the sizes of {@link #byLength}, 1-based */
+    private final int[] lengthCounts = new int[LENGTH_BUCKETS + 1];
+    /** Fenwick tree over the total weights of {@link #byLength}, 1-based */
+    private final long[] lengthWeights = new long[LENGTH_BUCKETS + 1];
+    private final Map<String, Bucket> byAuthor = new HashMap<>();
+    private final LongIntHashMap lengths = new LongIntHashMap(1024);
+    private final LongIntHashMap lengthPositions = new LongIntHashMap(1024);
+    private final LongIntHashMap authorPositions = new LongIntHashMap(1024);
+    /** Views per quote behind the weights; kept across rebuilds, replaced by {@link #updateWeights} */
+    private LongIntHashMap views = new LongIntHashMap();
+
+    public QuoteSampler() {
+        for (int i = 0; i < LENGTH_BUCKETS; i++) {
+            byLength[i] = new Bucket(true);
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            for (Bucket bucket : byLength) {
+                bucket.clear();
+            }
+            Arrays.fill(lengthCounts, 0);
+            Arrays.fill(lengthWeights, 0);
+            byAuthor.clear();
+            lengths.clear();
+            lengthPositions.clear();
+            authorPositions.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void add(QuoteSnapshot quote) {
+        int length = quote.text().length();
+        lock.writeLock().lock();
+        try {
+            if (lengths.containsKey(quote.id())) {
+                return;
+            }
+            lengths.put(quote.id(), length);
+            int bucket = bucketOf(length);
+            long weight = weight(quote.id());
+            lengthPositions.put(quote.id(), byLength[bucket].add(quote.id(), weight));
+            adjustLengthCount(bucket, 1);
+            adjust(lengthWeights, LENGTH_BUCKETS, bucket, weight);
+            Bucket author = byAuthor.computeIfAbsent(Quote.normalizeAuthor(quote.author()), key -> new Bucket(false));
+            authorPositions.put(quote.id(), author.add(quote.id(), weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(QuoteSnapshot quote) {
+        lock.writeLock().lock();
+        try {
+            int length = lengths.remove(quote.id());
+            if (length == LongIntHashMap.MISSING) {
+                return;
+            }
+            int bucket = bucketOf(length);
+            removeFrom(byLength[bucket], lengthPositions, quote.id());
+            adjustLengthCount(bucket, -1);
+            adjust(lengthWeights, LENGTH_BUCKETS, bucket, -weight(quote.id()));
+            String authorKey = Quote.normalizeAuthor(quote.author());
+            Bucket author = byAuthor.get(authorKey);
+            removeFrom(author, authorPositions, quote.id());
+            if (author.size == 0) {
+                byAuthor.remove(authorKey);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void replace(QuoteSnapshot previous, QuoteSnapshot current) {
+        if (previous.text().length() != current.text().length()
+                || !Quote.normalizeAuthor(previous.author()).equals(Quote.normalizeAuthor(current.author()))) {
+            remove(previous);
+            add(current);
+        }
+    }
+
+    /**
+     * Up to {@code count} distinct IDs chosen uniformly from the quotes matching every filter, in random order
+     *
+     * @param author    normalized or display author name, or {@code null} for any author
+     * @param maxLength longest text allowed, in characters
+     * @param exclude   IDs never to return
+     */
+    public long[] sample(String author, int maxLength, Set<Long> exclude, int count) {
+        lock.readLock().lock();
+        try {
+            if (author != null) {
+                Bucket bucket = byAuthor.get(Quote.normalizeAuthor(author));
+                if (bucket == null) {
+                    return new long[0];
+                }
+                return sample(bucket.size, rank -> bucket.ids[rank], maxLength, exclude, count);
+            }
+            int candidates = prefixCount(Math.min(maxLength, LENGTH_BUCKETS - 1));
+            return sample(candidates, this::idAtLengthRank, maxLength, exclude, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code count} distinct IDs matching every filter, drawn one after another with probability
+     * proportional to their weight among the quotes not drawn yet; parameters as for {@link #sample}
+     */
+    public long[] weightedSample(String author, int maxLength, Set<Long> exclude, int count) {
+        lock.readLock().lock();
+        try {
+            if (author != null) {
+                Bucket bucket = byAuthor.get(Quote.normalizeAuthor(author));
+                return bucket == null ? new long[0] : weightedSample(bucket, maxLength, exclude, count);
+            }
+            return weightedSample(bucketOf(maxLength), maxLength, exclude, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the view counts that weigh the quotes; only quotes whose count changed are re-weighed.
+     * The map is kept as is, so the caller hands over a copy it no longer writes to.
+     */
+    public void updateWeights(LongIntHashMap latest) {
+        lock.writeLock().lock();
+        try {
+            LongIntHashMap previous = views;
+            views = latest;
+            previous.forEach((id, before) -> {
+                int after = latest.get(id);
+                int delta = (after == LongIntHashMap.MISSING ? 0 : after) - before;
+                if (delta != 0) {
+                    reweigh(id, delta);
+                }
+            });
+            latest.forEach((id, after) -> {
+                if (!previous.containsKey(id)) {
+                    reweigh(id, after);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long[] sample(int candidates, IntToLongFunction idAt, int maxLength, Set<Long> exclude, int count) {
+        long[] picked = new long[Math.min(count, candidates)];
+        int found = 0;
+        // Lazy Fisher-Yates: position -> rank now at that position, for the positions swapped so far
+        Map<Integer, Integer> swapped = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < candidates && found < picked.length; i++) {
+            int j = i + random.nextInt(candidates - i);
+            int rank = swapped.getOrDefault(j, j);
+            if (j != i) {
+                swapped.put(j, swapped.getOrDefault(i, i));
+            }
+            long id = idAt.applyAsLong(rank);
+            if (lengths.get(id) <= maxLength && !exclude.contains(id)) {
+                picked[found++] = id;
+            }
+        }
+        return found == picked.length ? picked : Arrays.copyOf(picked, found);
+    }
+
+    /**
+     * Weighted draws over the length buckets up to {@code lastBucket}. Every drawn or excluded quote is taken out
+     * of the remaining weight and skipped by later descents; a quote in the shared last bucket that turns out too
+     * long is taken out the same way, so each draw removes a quote and the loop ends.
+     */
+    private long[] weightedSample(int lastBucket, int maxLength, Set<Long> exclude, int count) {
+        long remaining = prefix(lengthWeights, lastBucket + 1);
+        int limit = Math.min(count, prefixCount(lastBucket));
+        int[] takenBuckets = new int[Math.min(limit, 64) + exclude.size()];
+        int[] takenPositions = new int[takenBuckets.length];
+        long[] takenWeights = new long[takenBuckets.length];
+        int taken = 0;
+        for (long id : exclude) {
+            int length = lengths.get(id);
+            if (length != LongIntHashMap.MISSING && bucketOf(length) <= lastBucket) {
+                takenBuckets[taken] = bucketOf(length);
+                takenPositions[taken] = lengthPositions.get(id);
+                takenWeights[taken] = weight(id);
+                remaining -= takenWeights[taken++];
+            }
+        }
+        long[] picked = new long[limit];
+        int found = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (found < limit && remaining > 0) {
+            long target = random.nextLong(remaining);
+            int bucket = find(lengthWeights, LENGTH_BUCKETS, target, takenBuckets, takenWeights, taken);
+            target -= prefix(lengthWeights, bucket) - takenWeight(takenBuckets, takenWeights, taken, -1, bucket);
+            Bucket candidates = byLength[bucket];
+            int[] inBucket = new int[taken];
+            long[] inBucketWeights = new long[taken];
+            int skipped = 0;
+            for (int i = 0; i < taken; i++) {
+                if (takenBuckets[i] == bucket) {
+                    inBucket[skipped] = takenPositions[i];
+                    inBucketWeights[skipped++] = takenWeights[i];
+                }
+            }
+            int position = find(candidates.weights, candidates.size, target, inBucket, inBucketWeights, skipped);
+            long id = candidates.ids[position];
+            if (taken == takenBuckets.length) {
+                takenBuckets = Arrays.copyOf(takenBuckets, taken << 1);
+                takenPositions = Arrays.copyOf(takenPositions, taken << 1);
+                takenWeights = Arrays.copyOf(takenWeights, taken << 1);
+            }
+            takenBuckets[taken] = bucket;
+            takenPositions[taken] = position;
+            takenWeights[taken] = weight(id);
+            remaining -= takenWeights[taken++];
+            if (lengths.get(id) <= maxLength) {
+                picked[found++] = id;
+            }
+        }
+        return found == picked.length ? picked : Arrays.copyOf(picked, found);
+    }
+
+    /**
+     * Weighted sample of one author's quotes: each matching quote gets the key {@code log(u) / weight} for a
+     * uniform {@code u}, and the largest keys win, in order. This is the same distribution as drawing one after
+     * another without replacement.
+     */
+    private long[] weightedSample(Bucket bucket, int maxLength, Set<Long> exclude, int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] ids = new long[bucket.size];
+        double[] keys = new double[bucket.size];
+        int matching = 0;
+        for (int i = 0; i < bucket.size; i++) {
+            long id = bucket.ids[i];
+            if (lengths.get(id) <= maxLength && !exclude.contains(id)) {
+                ids[matching] = id;
+                keys[matching++] = Math.log(1.0 - random.nextDouble()) / weight(id);
+            }
+        }
+        return IntStream.range(0, matching)
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> keys[i]).reversed())
+                .limit(count)
+                .mapToLong(i -> ids[i])
+                .toArray();
+    }
+
+    private void reweigh(long id, int delta) {
+        int length = lengths.get(id);
+        if (length == LongIntHashMap.MISSING) {
+            return;
+        }
+        int bucket = bucketOf(length);
+        byLength[bucket].adjustWeight(lengthPositions.get(id), delta);
+        adjust(lengthWeights, LENGTH_BUCKETS, bucket, delta);
+    }
+
+    private long weight(long id) {
+        int viewed = views.get(id);
+        return viewed == LongIntHashMap.MISSING ? 1 : 1L + viewed;
+    }
+
+    /**
+     * The ID at {@code rank} when the quotes are ordered by length bucket, then by position in the bucket
+     */
+    private long idAtLengthRank(int rank) {
+        // Fenwick descent to the first bucket whose prefix count exceeds rank
+        int index = 0;
+        int remaining = rank;
+        for (int step = Integer.highestOneBit(LENGTH_BUCKETS); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= LENGTH_BUCKETS && lengthCounts[next] <= remaining) {
+                index = next;
+                remaining -= lengthCounts[next];
+            }
+        }
+        return byLength[index].ids[remaining];
+    }
+
+    private int prefixCount(int bucket) {
+        int count = 0;
+        for (int i = bucket + 1; i > 0; i -= i & -i) {
+            count += lengthCounts[i];
+        }
+        return count;
+    }
+
+    private void adjustLengthCount(int bucket, int delta) {
+        for (int i = bucket + 1; i <= LENGTH_BUCKETS; i += i & -i) {
+            lengthCounts[i] += delta;
+        }
+    }
+
+    /**
+     * Fenwick descent to the 0-based index whose range of the cumulative weight holds {@code target}, with the
+     * weights of the {@code taken} indexes treated as zero
+     */
+    private static int find(long[] tree, int size, long target, int[] takenIndexes, long[] takenWeights, int taken) {
+        int index = 0;
+        long remaining = target;
+        for (int step = Integer.highestOneBit(Math.max(size, 1)); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= size) {
+                long weight = tree[next] - takenWeight(takenIndexes, takenWeights, taken, index - 1, next);
+                if (weight <= remaining) {
+                    index = next;
+                    remaining -= weight;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Summed weight of the taken entries whose index lies after {@code after} and before {@code before}
+     */
+    private static long takenWeight(int[] indexes, long[] weights, int taken, int after, int before) {
+        long sum = 0;
+        for (int i = 0; i < taken; i++) {
+            if (indexes[i] > after && indexes[i] < before) {
+                sum += weights[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Sum of the first {@code count} entries of a 1-based Fenwick tree
+     */
+    private static long prefix(long[] tree, int count) {
+        long sum = 0;
+        for (int i = count; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private static void adjust(long[] tree, int size, int index, long delta) {
+        for (int i = index + 1; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private static int bucketOf(int length) {
+        return Math.min(length, LENGTH_BUCKETS - 1);
+    }
+
+    private void removeFrom(Bucket bucket, LongIntHashMap positions, long id) {
+        int position = positions.remove(id);
+        long moved = bucket.remove(position, this::weight);
+        if (moved != QuoteIdIndex.NONE) {
+            positions.put(moved, position);
+        }
+    }
+
+    /**
+     * IDs without gaps; removal moves the last ID into the freed slot.
+     * A weighted bucket also keeps a Fenwick tree over its IDs' weights, valid up to {@code size}.
+     */
+    private static final class Bucket {
+
+        private final boolean weighted;
+        private long[] ids = new long[4];
+        private long[] weights;
+        private int size;
+
+        Bucket(boolean weighted) {
+            this.weighted = weighted;
+            this.weights = weighted ? new long[ids.length + 1] : null;
+        }
+
+        int add(long id, long weight) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+                if (weighted) {
+                    weights = Arrays.copyOf(weights, (size << 1) + 1);
+                }
+            }
+            ids[size] = id;
+            if (weighted) {
+                // The new node covers (index - lowbit(index), index]: its own weight plus the entries before it
+                int index = size + 1;
+                weights[index] = weight + prefix(weights, index - 1) - prefix(weights, index - (index & -index));
+            }
+            return size++;
+        }
+
+        /**
+         * @return the ID moved into {@code position}, or {@link QuoteIdIndex#NONE} if it was the last slot
+         */
+        long remove(int position, LongUnaryOperator weightOf) {
+            long last = ids[size - 1];
+            if (position == size - 1) {
+                size--;
+                return QuoteIdIndex.NONE;
+            }
+            if (weighted) {
+                adjustWeight(position, weightOf.applyAsLong(last) - weightOf.applyAsLong(ids[position]));
+            }
+            ids[position] = last;
+            size--;
+            return last;
+        }
+
+        void adjustWeight(int position, long delta) {
+            adjust(weights, size, position, delta);
+        }
+
+        void clear() {
+            ids = new long[4];
+            weights = weighted ? new long[ids.length + 1] : null;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.quote.index;
+
+import com.example.quote.model.QuoteSnapshot;
+import com.example.quote.util.LongIntHashMap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over quote text and author.
+ * Every quote gets an internal int ordinal; each term maps to a posting list of ordinals in
+ * ascending order with their term frequencies. Queries intersect the posting lists (all terms
+ * must match, starting from the rarest) and rank the matches with BM25.
+ * Deleted and updated quotes leave dead ordinals behind that are compacted away once they
+ * outnumber the live ones.
+ */
+@Component
+public class QuoteSearchIndex implements QuoteIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int AUTHOR_TERM_WEIGHT = 2;
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MIN_DEAD_BEFORE_COMPACTION = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final LongIntHashMap ordinals = new LongIntHashMap(1024);
+    /** Quote ID per ordinal, 0 for dead ordinals */
+    private long[] quoteIds = new long[1024];
+    private int[] lengths = new int[1024];
+    private int nextOrdinal;
+    private int liveDocs;
+    private long totalLength;
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            ordinals.clear();
+            quoteIds = new long[1024];
+            lengths = new int[1024];
+            nextOrdinal = 0;
+            liveDocs = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void add(QuoteSnapshot quote) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        int length = count(quote.text(), 1, frequencies) + count(quote.author(), AUTHOR_TERM_WEIGHT, frequencies);
+        lock.writeLock().lock();
+        try {
+            if (ordinals.containsKey(quote.id())) {
+                return;
+            }
+            if (nextOrdinal == quoteIds.length) {
+                quoteIds = Arrays.copyOf(quoteIds, nextOrdinal << 1);
+                lengths = Arrays.copyOf(lengths, nextOrdinal << 1);
+            }
+            int ordinal = nextOrdinal++;
+            quoteIds[ordinal] = quote.id();
+            lengths[ordinal] = length;
+            ordinals.put(quote.id(), ordinal);
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new PostingList()).append(ordinal, frequency));
+            liveDocs++;
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(QuoteSnapshot quote) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinals.remove(quote.id());
+            if (ordinal == LongIntHashMap.MISSING) {
+                return;
+            }
+            quoteIds[ordinal] = 0;
+            liveDocs--;
+            totalLength -= lengths[ordinal];
+            if (nextOrdinal - liveDocs > Math.max(MIN_DEAD_BEFORE_COMPACTION, liveDocs)) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return IDs of the quotes containing every query term, best match first
+     */
+    public List<Long> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            PostingList[] lists = new PostingList[terms.size()];
+            int i = 0;
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists[i++] = list;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            return rank(lists, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> rank(PostingList[] lists, int limit) {
+        double averageLength = liveDocs == 0 ? 1 : (double) totalLength / liveDocs;
+        double[] idf = new double[lists.length];
+        for (int t = 0; t < lists.length; t++) {
+            idf[t] = Math.log(1 + (liveDocs - lists[t].size + 0.5) / (lists[t].size + 0.5));
+        }
+        int[] cursors = new int[lists.length];
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Hit::score));
+        PostingList rarest = lists[0];
+
+        candidates:
+        for (int p = 0; p < rarest.size; p++) {
+            int ordinal = rarest.docs[p];
+            if (quoteIds[ordinal] == 0) {
+                continue;
+            }
+            double norm = K1 * (1 - B + B * lengths[ordinal] / averageLength);
+            double score = idf[0] * bm25(rarest.freqs[p], norm);
+            for (int t = 1; t < lists.length; t++) {
+                PostingList list = lists[t];
+                int at = list.advance(cursors[t], ordinal);
+                cursors[t] = at;
+                if (at == list.size) {
+                    break candidates;
+                }
+                if (list.docs[at] != ordinal) {
+                    continue candidates;
+                }
+                score += idf[t] * bm25(list.freqs[at], norm);
+            }
+            if (top.size() < limit) {
+                top.add(new Hit(quoteIds[ordinal], score));
+            } else if (score > top.peek().score()) {
+                top.poll();
+                top.add(new Hit(quoteIds[ordinal], score));
+            }
+        }
+
+        Long[] ranked = new Long[top.size()];
+        for (int r = ranked.length - 1; r >= 0; r--) {
+            ranked[r] = top.poll().quoteId();
+        }
+        return Arrays.asList(ranked);
+    }
+
+    private static double bm25(int frequency, double norm) {
+        return frequency * (K1 + 1) / (frequency + norm);
+    }
+
+    /**
+     * Drop dead ordinals and renumber the live ones; relative order is kept so posting lists stay sorted
+     */
+    private void compact() {
+        int[] remap = new int[nextOrdinal];
+        int live = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (quoteIds[ordinal] != 0) {
+                remap[ordinal] = live;
+                quoteIds[live] = quoteIds[ordinal];
+                lengths[live] = lengths[ordinal];
+                ordinals.put(quoteIds[live], live);
+                live++;
+            } else {
+                remap[ordinal] = -1;
+            }
+        }
+        nextOrdinal = live;
+        postings.values().removeIf(list -> list.compact(remap) == 0);
+    }
+
+    private static int count(String text, int weight, Map<String, Integer> frequencies) {
+        List<String> tokens = tokenize(text);
+        tokens.forEach(token -> frequencies.merge(token, weight, Integer::sum));
+        return tokens.size() * weight;
+    }
+
+    /**
+     * Lower-cased runs of letters and digits; single characters are ignored
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= MIN_TOKEN_LENGTH) {
+                    tokens.add(lower.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private record Hit(long quoteId, double score) {
+    }
+
+    private static final class PostingList {
+
+        private int[] docs = new int[2];
+        private int[] freqs = new int[2];
+        private int size;
+
+        void append(int ordinal, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size << 1);
+                freqs = Arrays.copyOf(freqs, size << 1);
+            }
+            docs[size] = ordinal;
+            freqs[size] = frequency;
+            size++;
+        }
+
+        /**
+         * First position at or after {@code from} whose ordinal is {@code >= target}, found by galloping
+         */
+        int advance(int from, int target) {
+            int bound = 1;
+            int low = from;
+            while (from + bound < size && docs[from + bound] < target) {
+                low = from + bound;
+                bound <<= 1;
+            }
+            int high = Math.min(from + bound, size - 1);
+            if (low >= size || docs[high] < target) {
+                return size;
+            }
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (docs[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        int compact(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = remap[docs[i]];
+                if (ordinal >= 0) {
+                    docs[kept] = ordinal;
+                    freqs[kept] = freqs[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+}
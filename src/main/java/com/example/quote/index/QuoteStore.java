@@ -0,0 +1,577 @@
+package com.example.quote.index;
+
+import com.example.quote.dto.QuoteResponse;
+import com.example.quote.model.Quote;
+import com.example.quote.model.QuoteSnapshot;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Memory-resident columnar copy of the whole catalog, used when {@code quote.read-model=memory}.
+ * Rows are kept sorted by ID in fixed-size chunks of parallel primitive arrays; authors are interned
+ * and identical texts share one string. Each interned value counts the rows using it and is dropped with
+ * the last one, so retired spellings and texts do not stay reachable. Readers take the current immutable
+ * {@link Snapshot} without locking. Writers are serialized and publish a new snapshot that copies only the
+ * chunk and author shard they touched.
+ */
+@Component
+@ConditionalOnProperty(prefix = "quote", name = "read-model", havingValue = "memory")
+public class QuoteStore implements QuoteIndex {
+
+    static final int CHUNK_SIZE = 1024;
+
+    /** Author ID lists are split over this many shards, so a write copies only a slice of the author index */
+    static final int AUTHOR_SHARDS = 64;
+
+    private static final long[] NO_IDS = new long[0];
+    private static final Snapshot EMPTY = new Snapshot(new Chunk[0], new long[0], 0, AuthorIndex.of(Map.of()));
+
+    /** Interned authors by display name; guarded by {@code this} */
+    private Map<String, Interned<Author>> authors = new HashMap<>();
+    /** Interned texts; guarded by {@code this} */
+    private Map<String, Interned<String>> texts = new HashMap<>();
+    private volatile Snapshot snapshot = EMPTY;
+    /** Rows collected between {@link #clear()} and {@link #finishRebuild()} */
+    private Builder builder;
+
+    /** An interned author name together with its normalized lookup key */
+    private record Author(String name, String key) {
+    }
+
+    /** A shared instance and the number of rows using it */
+    private static final class Interned<T> {
+
+        private final T value;
+        private int rows;
+
+        Interned(T value) {
+            this.value = value;
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        builder = new Builder();
+    }
+
+    @Override
+    public synchronized void add(QuoteSnapshot quote) {
+        if (builder != null) {
+            builder.add(quote);
+        } else {
+            upsert(quote);
+        }
+    }
+
+    @Override
+    public synchronized void remove(QuoteSnapshot quote) {
+        if (builder != null) {
+            builder.remove(quote.id());
+            return;
+        }
+        Snapshot current = snapshot;
+        Chunk chunk = current.chunkFor(quote.id());
+        int row = chunk == null ? -1 : Arrays.binarySearch(chunk.ids, quote.id());
+        if (row < 0) {
+            return;
+        }
+        String text = chunk.texts[row];
+        Author author = chunk.authors[row];
+        snapshot = current.remove(quote.id());
+        release(texts, text);
+        release(authors, author.name());
+    }
+
+    @Override
+    public synchronized void replace(QuoteSnapshot previous, QuoteSnapshot current) {
+        if (builder != null || previous.id() != current.id()) {
+            QuoteIndex.super.replace(previous, current);
+        } else {
+            upsert(current);
+        }
+    }
+
+    @Override
+    public synchronized void finishRebuild() {
+        if (builder != null) {
+            texts = new HashMap<>();
+            authors = new HashMap<>();
+            snapshot = builder.build(texts, authors);
+            builder = null;
+        }
+    }
+
+    public int size() {
+        return snapshot.size;
+    }
+
+    /**
+     * @param dailyId ID reported with {@code isDailyQuote=true}
+     * @return the quote, or {@code null}
+     */
+    public QuoteResponse get(long id, long dailyId) {
+        Snapshot current = snapshot;
+        int chunkIndex = current.chunkOf(id);
+        if (chunkIndex < 0) {
+            return null;
+        }
+        Chunk chunk = current.chunks[chunkIndex];
+        int row = Arrays.binarySearch(chunk.ids, id);
+        return row < 0 ? null : chunk.response(row, dailyId);
+    }
+
+    /**
+     * Up to {@code limit} quotes with IDs greater than {@code after}, in ID order
+     */
+    public List<QuoteResponse> page(long after, int limit, long dailyId) {
+        Snapshot current = snapshot;
+        List<QuoteResponse> quotes = new ArrayList<>(Math.min(limit, current.size));
+        int chunkIndex = Math.max(0, current.chunkOf(after));
+        for (; chunkIndex < current.chunks.length && quotes.size() < limit; chunkIndex++) {
+            Chunk chunk = current.chunks[chunkIndex];
+            int row = Arrays.binarySearch(chunk.ids, after);
+            for (row = row < 0 ? -row - 1 : row + 1; row < chunk.ids.length && quotes.size() < limit; row++) {
+                quotes.add(chunk.response(row, dailyId));
+            }
+        }
+        return quotes;
+    }
+
+    public void forEach(long dailyId, Consumer<QuoteResponse> sink) {
+        for (Chunk chunk : snapshot.chunks) {
+            for (int row = 0; row < chunk.ids.length; row++) {
+                sink.accept(chunk.response(row, dailyId));
+            }
+        }
+    }
+
+    /**
+     * Case-insensitive author match in ID order; looks up only the author's own rows
+     */
+    public List<QuoteResponse> byAuthor(String author, long dailyId) {
+        Snapshot current = snapshot;
+        long[] ids = current.authors.ids(Quote.normalizeAuthor(author));
+        List<QuoteResponse> quotes = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Chunk chunk = current.chunkFor(id);
+            quotes.add(chunk.response(Arrays.binarySearch(chunk.ids, id), dailyId));
+        }
+        return quotes;
+    }
+
+    /**
+     * Distinct texts and author spellings held, for tests
+     */
+    synchronized int[] internedCounts() {
+        return new int[]{texts.size(), authors.size()};
+    }
+
+    /**
+     * Insert or overwrite a row outside a rebuild. The new values are interned before the old ones are released,
+     * so a value the row keeps is never dropped and recreated.
+     */
+    private void upsert(QuoteSnapshot quote) {
+        Snapshot current = snapshot;
+        Chunk chunk = current.chunkFor(quote.id());
+        int row = chunk == null ? -1 : Arrays.binarySearch(chunk.ids, quote.id());
+        String text = acquire(texts, quote.text(), value -> value);
+        Author author = acquire(authors, quote.author(), name -> new Author(name, Quote.normalizeAuthor(name)));
+        snapshot = current.upsert(quote, text, author);
+        if (row >= 0) {
+            release(texts, chunk.texts[row]);
+            release(authors, chunk.authors[row].name());
+        }
+    }
+
+    private static <T> T acquire(Map<String, Interned<T>> table, String key, Function<String, T> create) {
+        Interned<T> interned = table.computeIfAbsent(key, k -> new Interned<>(create.apply(k)));
+        interned.rows++;
+        return interned.value;
+    }
+
+    private static void release(Map<String, ? extends Interned<?>> table, String key) {
+        Interned<?> interned = table.get(key);
+        if (interned != null && --interned.rows == 0) {
+            table.remove(key);
+        }
+    }
+
+    /**
+     * Immutable view of the catalog; {@code firstIds[i]} is the smallest ID in {@code chunks[i]}
+     */
+    private record Snapshot(Chunk[] chunks, long[] firstIds, int size, AuthorIndex authors) {
+
+        /**
+         * Index of the chunk that holds or would hold {@code id}, or -1 if it sorts before every chunk
+         */
+        int chunkOf(long id) {
+            int index = Arrays.binarySearch(firstIds, id);
+            return index >= 0 ? index : -index - 2;
+        }
+
+        /**
+         * The chunk that would hold {@code id}, or {@code null} if it sorts before every chunk
+         */
+        Chunk chunkFor(long id) {
+            int index = chunkOf(id);
+            return index < 0 ? null : chunks[index];
+        }
+
+        Snapshot upsert(QuoteSnapshot quote, String text, Author author) {
+            long id = quote.id();
+            if (chunks.length == 0) {
+                return new Snapshot(new Chunk[]{Chunk.of(quote, text, author)}, new long[]{id}, 1,
+                        authors.with(author.key(), id));
+            }
+            int chunkIndex = Math.max(0, chunkOf(id));
+            Chunk chunk = chunks[chunkIndex];
+            int row = Arrays.binarySearch(chunk.ids, id);
+            if (row >= 0) {
+                String previousKey = chunk.authors[row].key();
+                AuthorIndex moved = previousKey.equals(author.key())
+                        ? authors
+                        : authors.without(previousKey, id).with(author.key(), id);
+                return withChunk(chunkIndex, chunk.set(row, quote, text, author), size, moved);
+            }
+            AuthorIndex added = authors.with(author.key(), id);
+            boolean appending = chunkIndex == chunks.length - 1 && -row - 1 == chunk.ids.length;
+            if (appending && chunk.ids.length >= CHUNK_SIZE) {
+                Chunk[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+                grown[chunks.length] = Chunk.of(quote, text, author);
+                long[] grownFirstIds = Arrays.copyOf(firstIds, firstIds.length + 1);
+                grownFirstIds[firstIds.length] = id;
+                return new Snapshot(grown, grownFirstIds, size + 1, added);
+            }
+            Chunk inserted = chunk.insert(-row - 1, quote, text, author);
+            if (inserted.ids.length <= 2 * CHUNK_SIZE) {
+                return withChunk(chunkIndex, inserted, size + 1, added);
+            }
+            // Split an overgrown chunk so a write never copies more than two chunks' worth of rows
+            Chunk[] split = new Chunk[chunks.length + 1];
+            System.arraycopy(chunks, 0, split, 0, chunkIndex);
+            split[chunkIndex] = inserted.slice(0, CHUNK_SIZE);
+            split[chunkIndex + 1] = inserted.slice(CHUNK_SIZE, inserted.ids.length);
+            System.arraycopy(chunks, chunkIndex + 1, split, chunkIndex + 2, chunks.length - chunkIndex - 1);
+            return new Snapshot(split, firstIds(split), size + 1, added);
+        }
+
+        Snapshot remove(long id) {
+            int chunkIndex = chunkOf(id);
+            if (chunkIndex < 0) {
+                return this;
+            }
+            Chunk chunk = chunks[chunkIndex];
+            int row = Arrays.binarySearch(chunk.ids, id);
+            if (row < 0) {
+                return this;
+            }
+            AuthorIndex removed = authors.without(chunk.authors[row].key(), id);
+            if (chunk.ids.length > 1) {
+                return withChunk(chunkIndex, chunk.delete(row), size - 1, removed);
+            }
+            Chunk[] shrunk = new Chunk[chunks.length - 1];
+            System.arraycopy(chunks, 0, shrunk, 0, chunkIndex);
+            System.arraycopy(chunks, chunkIndex + 1, shrunk, chunkIndex, shrunk.length - chunkIndex);
+            return new Snapshot(shrunk, firstIds(shrunk), size - 1, removed);
+        }
+
+        private Snapshot withChunk(int chunkIndex, Chunk chunk, int newSize, AuthorIndex newAuthors) {
+            Chunk[] copy = chunks.clone();
+            copy[chunkIndex] = chunk;
+            long[] copyFirstIds = firstIds;
+            if (firstIds[chunkIndex] != chunk.ids[0]) {
+                copyFirstIds = firstIds.clone();
+                copyFirstIds[chunkIndex] = chunk.ids[0];
+            }
+            return new Snapshot(copy, copyFirstIds, newSize, newAuthors);
+        }
+
+        private static long[] firstIds(Chunk[] chunks) {
+            long[] firstIds = new long[chunks.length];
+            for (int i = 0; i < chunks.length; i++) {
+                firstIds[i] = chunks[i].ids[0];
+            }
+            return firstIds;
+        }
+    }
+
+    /**
+     * Immutable map from normalized author key to the author's IDs in ascending order, hashed over
+     * {@link #AUTHOR_SHARDS} shards; a change copies one shard and one ID list
+     */
+    private record AuthorIndex(Map<String, long[]>[] shards) {
+
+        @SuppressWarnings("unchecked")
+        static AuthorIndex of(Map<String, long[]> ids) {
+            Map<String, long[]>[] shards = new Map[AUTHOR_SHARDS];
+            for (int i = 0; i < AUTHOR_SHARDS; i++) {
+                shards[i] = new HashMap<>();
+            }
+            ids.forEach((key, authorIds) -> shards[shard(key)].put(key, authorIds));
+            return new AuthorIndex(shards);
+        }
+
+        long[] ids(String key) {
+            return shards[shard(key)].getOrDefault(key, NO_IDS);
+        }
+
+        AuthorIndex with(String key, long id) {
+            long[] ids = ids(key);
+            int position = Arrays.binarySearch(ids, id);
+            if (position >= 0) {
+                return this;
+            }
+            position = -position - 1;
+            long[] grown = new long[ids.length + 1];
+            System.arraycopy(ids, 0, grown, 0, position);
+            grown[position] = id;
+            System.arraycopy(ids, position, grown, position + 1, ids.length - position);
+            return withIds(key, grown);
+        }
+
+        AuthorIndex without(String key, long id) {
+            long[] ids = ids(key);
+            int position = Arrays.binarySearch(ids, id);
+            if (position < 0) {
+                return this;
+            }
+            long[] shrunk = new long[ids.length - 1];
+            System.arraycopy(ids, 0, shrunk, 0, position);
+            System.arraycopy(ids, position + 1, shrunk, position, shrunk.length - position);
+            return withIds(key, shrunk.length == 0 ? null : shrunk);
+        }
+
+        private AuthorIndex withIds(String key, long[] ids) {
+            int shard = shard(key);
+            Map<String, long[]> copy = new HashMap<>(shards[shard]);
+            if (ids == null) {
+                copy.remove(key);
+            } else {
+                copy.put(key, ids);
+            }
+            Map<String, long[]>[] shardsCopy = shards.clone();
+            shardsCopy[shard] = copy;
+            return new AuthorIndex(shardsCopy);
+        }
+
+        private static int shard(String key) {
+            return Math.floorMod(key.hashCode(), AUTHOR_SHARDS);
+        }
+    }
+
+    /**
+     * Immutable run of rows sorted by ID, stored column by column
+     */
+    private record Chunk(long[] ids, String[] texts, Author[] authors, long[] createdSeconds, int[] createdNanos,
+                         long[] versions) {
+
+        static Chunk of(QuoteSnapshot quote, String text, Author author) {
+            Chunk chunk = allocate(1);
+            chunk.ids[0] = quote.id();
+            chunk.setRow(0, quote, text, author);
+            return chunk;
+        }
+
+        static Chunk allocate(int length) {
+            return new Chunk(new long[length], new String[length], new Author[length],
+                    new long[length], new int[length], new long[length]);
+        }
+
+        QuoteResponse response(int row, long dailyId) {
+            LocalDateTime createdAt = createdSeconds[row] == Long.MIN_VALUE
+                    ? null
+                    : LocalDateTime.ofEpochSecond(createdSeconds[row], createdNanos[row], ZoneOffset.UTC);
+            return new QuoteResponse(ids[row], texts[row], authors[row].name(), createdAt, ids[row] == dailyId,
+                    versions[row]);
+        }
+
+        Chunk set(int row, QuoteSnapshot quote, String text, Author author) {
+            Chunk copy = slice(0, ids.length);
+            copy.setRow(row, quote, text, author);
+            return copy;
+        }
+
+        Chunk insert(int row, QuoteSnapshot quote, String text, Author author) {
+            Chunk copy = allocate(ids.length + 1);
+            copy.copyFrom(this, 0, 0, row);
+            copy.copyFrom(this, row, row + 1, ids.length - row);
+            copy.ids[row] = quote.id();
+            copy.setRow(row, quote, text, author);
+            return copy;
+        }
+
+        Chunk delete(int row) {
+            int length = ids.length - 1;
+            Chunk copy = allocate(length);
+            copy.copyFrom(this, 0, 0, row);
+            copy.copyFrom(this, row + 1, row, length - row);
+            return copy;
+        }
+
+        Chunk slice(int from, int to) {
+            return new Chunk(Arrays.copyOfRange(ids, from, to), Arrays.copyOfRange(texts, from, to),
+                    Arrays.copyOfRange(authors, from, to), Arrays.copyOfRange(createdSeconds, from, to),
+                    Arrays.copyOfRange(createdNanos, from, to), Arrays.copyOfRange(versions, from, to));
+        }
+
+        private void setRow(int row, QuoteSnapshot quote, String text, Author author) {
+            texts[row] = text;
+            authors[row] = author;
+            createdSeconds[row] = seconds(quote.createdAt());
+            createdNanos[row] = nanos(quote.createdAt());
+            versions[row] = quote.version();
+        }
+
+        private void copyFrom(Chunk source, int from, int to, int length) {
+            System.arraycopy(source.ids, from, ids, to, length);
+            System.arraycopy(source.texts, from, texts, to, length);
+            System.arraycopy(source.authors, from, authors, to, length);
+            System.arraycopy(source.createdSeconds, from, createdSeconds, to, length);
+            System.arraycopy(source.createdNanos, from, createdNanos, to, length);
+            System.arraycopy(source.versions, from, versions, to, length);
+        }
+
+        private static long seconds(LocalDateTime createdAt) {
+            return createdAt == null ? Long.MIN_VALUE : createdAt.toEpochSecond(ZoneOffset.UTC);
+        }
+
+        private static int nanos(LocalDateTime createdAt) {
+            return createdAt == null ? 0 : createdAt.getNano();
+        }
+    }
+
+    /**
+     * Accumulates a full rebuild in growable columns, then cuts them into chunks in one pass
+     */
+    private static final class Builder {
+
+        private final Map<String, String> texts = new HashMap<>();
+        private final Map<String, Author> authors = new HashMap<>();
+        private final Map<Long, Integer> removed = new HashMap<>();
+        private long[] ids = new long[CHUNK_SIZE];
+        private String[] rowTexts = new String[CHUNK_SIZE];
+        private Author[] rowAuthors = new Author[CHUNK_SIZE];
+        private LocalDateTime[] createdAts = new LocalDateTime[CHUNK_SIZE];
+        private long[] versions = new long[CHUNK_SIZE];
+        private int size;
+        private boolean sorted = true;
+
+        void add(QuoteSnapshot quote) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+                rowTexts = Arrays.copyOf(rowTexts, size << 1);
+                rowAuthors = Arrays.copyOf(rowAuthors, size << 1);
+                createdAts = Arrays.copyOf(createdAts, size << 1);
+                versions = Arrays.copyOf(versions, size << 1);
+            }
+            sorted &= size == 0 || ids[size - 1] < quote.id();
+            ids[size] = quote.id();
+            rowTexts[size] = texts.computeIfAbsent(quote.text(), text -> text);
+            rowAuthors[size] = authors.computeIfAbsent(quote.author(),
+                    name -> new Author(name, Quote.normalizeAuthor(name)));
+            createdAts[size] = quote.createdAt();
+            versions[size] = quote.version();
+            size++;
+        }
+
+        /**
+         * A change event raced with the rebuild; rows of this ID added before now are dropped when the snapshot is built
+         */
+        void remove(long id) {
+            removed.put(id, size);
+        }
+
+        /**
+         * Cut the kept rows into a snapshot and count them into fresh intern tables, so values only used by
+         * rows that were replaced or removed during the rebuild are not carried over
+         */
+        Snapshot build(Map<String, Interned<String>> internedTexts, Map<String, Interned<Author>> internedAuthors) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            if (!sorted) {
+                // Stable, so the latest copy of a duplicated ID sorts last within its group
+                Arrays.sort(order, (a, b) -> Long.compare(ids[a], ids[b]));
+            }
+            List<Chunk> chunks = new ArrayList<>(size / CHUNK_SIZE + 1);
+            List<Integer> pending = new ArrayList<>(CHUNK_SIZE);
+            Map<String, LongList> authorIds = new HashMap<>();
+            int rows = 0;
+            for (int i = 0; i < size; ) {
+                long id = ids[order[i]];
+                int latest = order[i++];
+                while (i < size && ids[order[i]] == id) {
+                    latest = order[i++];
+                }
+                Integer removedAt = removed.get(id);
+                if (removedAt != null && removedAt > latest) {
+                    continue;
+                }
+                pending.add(latest);
+                internedTexts.computeIfAbsent(rowTexts[latest], Interned::new).rows++;
+                Author author = rowAuthors[latest];
+                internedAuthors.computeIfAbsent(author.name(), name -> new Interned<>(author)).rows++;
+                authorIds.computeIfAbsent(author.key(), key -> new LongList()).add(id);
+                if (pending.size() == CHUNK_SIZE) {
+                    chunks.add(chunk(pending));
+                    rows += pending.size();
+                    pending.clear();
+                }
+            }
+            if (!pending.isEmpty()) {
+                chunks.add(chunk(pending));
+                rows += pending.size();
+            }
+            Chunk[] array = chunks.toArray(Chunk[]::new);
+            Map<String, long[]> ids = new HashMap<>(authorIds.size() * 2);
+            authorIds.forEach((key, list) -> ids.put(key, list.toArray()));
+            return new Snapshot(array, Snapshot.firstIds(array), rows, AuthorIndex.of(ids));
+        }
+
+        private Chunk chunk(List<Integer> rows) {
+            int length = rows.size();
+            Chunk chunk = Chunk.allocate(length);
+            for (int i = 0; i < length; i++) {
+                int row = rows.get(i);
+                chunk.ids[i] = ids[row];
+                chunk.texts[i] = rowTexts[row];
+                chunk.authors[i] = rowAuthors[row];
+                chunk.createdSeconds[i] = Chunk.seconds(createdAts[row]);
+                chunk.createdNanos[i] = Chunk.nanos(createdAts[row]);
+                chunk.versions[i] = versions[row];
+            }
+            return chunk;
+        }
+    }
+
+    /**
+     * Growable list of primitive IDs, appended in ascending order during a rebuild
+     */
+    private static final class LongList {
+
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
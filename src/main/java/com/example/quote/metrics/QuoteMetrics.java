@@ -0,0 +1,89 @@
+package com.example.quote.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Application-specific meters. HTTP endpoints and repository queries are timed by Spring Boot's
+ * built-in {@code http.server.requests} and {@code spring.data.repository.invocations} meters.
+ * Meters are created once and held by their callers so the hot paths only pay for an increment.
+ */
+@Component
+public class QuoteMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer dailyRotation;
+    private final Map<String, DistributionSummary> rowsMaterialized = new ConcurrentHashMap<>();
+
+    public QuoteMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.dailyRotation = Timer.builder("quote.daily.rotation")
+                .description("Duration of the scheduled daily quote rotation")
+                .register(registry);
+    }
+
+    public Counter cacheHits(String cache) {
+        return cacheRequests(cache, "hit");
+    }
+
+    public Counter cacheMisses(String cache) {
+        return cacheRequests(cache, "miss");
+    }
+
+    /**
+     * Current entry count and cumulative evictions of a size-bounded cache
+     */
+    public <T> void cacheGauges(String cache, T state, ToDoubleFunction<T> size, ToDoubleFunction<T> evictions) {
+        Gauge.builder("quote.cache.size", state, size)
+                .description("Entries currently cached")
+                .tag("cache", cache)
+                .register(registry);
+        FunctionCounter.builder("quote.cache.evictions", state, evictions)
+                .description("Entries evicted to stay within the size bound")
+                .tag("cache", cache)
+                .register(registry);
+    }
+
+    /**
+     * Startup load of the in-memory indexes, tagged with where the catalog was read from
+     */
+    public Timer catalogLoad(String source) {
+        return Timer.builder("quote.catalog.load")
+                .description("Time to build the in-memory indexes at startup")
+                .tag("source", source)
+                .register(registry);
+    }
+
+    public Timer dailyRotation() {
+        return dailyRotation;
+    }
+
+    /**
+     * Number of quotes loaded into memory to answer one request
+     */
+    public void recordRows(String operation, long rows) {
+        rowsMaterialized.computeIfAbsent(operation, name -> DistributionSummary.builder("quote.rows.materialized")
+                        .description("Quotes materialized per request")
+                        .tag("operation", name)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(rows);
+    }
+
+    private Counter cacheRequests(String cache, String result) {
+        return Counter.builder("quote.cache.requests")
+                .description("Cache lookups by outcome")
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(registry);
+    }
+}
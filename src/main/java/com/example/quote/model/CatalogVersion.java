@@ -0,0 +1,15 @@
+package com.example.quote.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cheap fingerprint of the quote catalog, answered from indexes alone. Any insert raises {@code maxId},
+ * any update raises {@code lastUpdated} and any delete lowers {@code count}, so a copy of the catalog
+ * taken at an equal version is still current.
+ */
+public record CatalogVersion(long count, long maxId, LocalDateTime lastUpdated) {
+
+    public CatalogVersion(Long count, Long maxId, LocalDateTime lastUpdated) {
+        this(count == null ? 0 : count, maxId == null ? 0 : maxId, lastUpdated);
+    }
+}
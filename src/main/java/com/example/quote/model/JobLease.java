@@ -0,0 +1,47 @@
+package com.example.quote.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Cluster-wide lease for a scheduled job. A node may run the job only while it holds an unexpired lease;
+ * a node that dies mid-run simply lets the lease expire, and another node takes the run over.
+ */
+@Entity
+@Table(name = "job_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobLease {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    /**
+     * Node currently holding the lease, or {@code null} when free
+     */
+    @Column(length = 128)
+    private String owner;
+
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
+    /**
+     * Key of the last run that completed, for example the date of a daily job
+     */
+    @Column(name = "last_run", length = 64)
+    private String lastRun;
+
+    /**
+     * Incremented by every completed run; other nodes poll it to learn about runs they did not perform
+     */
+    @Column(nullable = false)
+    private long version;
+}
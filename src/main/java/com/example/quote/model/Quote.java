@@ -9,9 +9,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
-@Table(name = "quotes")
+@Table(name = "quotes", indexes = {
+        @Index(name = "idx_quotes_author_key", columnList = "author_key"),
+        @Index(name = "idx_quotes_updated_at", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,12 +36,30 @@ public class Quote {
     @Column(nullable = false, length = 100)
     private String author;
 
+    /**
+     * Normalized copy of {@link #author} backing indexed, case-insensitive author lookups
+     */
+    @Column(name = "author_key", length = 100)
+    private String authorKey;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Optimistic lock: every update bumps it and fails if another writer got there first.
+     * Also the quote's HTTP entity tag.
+     */
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    /**
+     * No longer maintained: the daily quote is computed by {@code DailyQuotePicker}. Kept so existing
+     * schemas, where the column is NOT NULL, still accept inserts.
+     */
     @Column(name = "is_daily_quote")
     private boolean isDailyQuote;
 
@@ -45,10 +67,19 @@ public class Quote {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        authorKey = normalizeAuthor(author);
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        authorKey = normalizeAuthor(author);
+    }
+
+    /**
+     * Must stay in line with the {@code LOWER(TRIM(...))} backfill in the repository
+     */
+    public static String normalizeAuthor(String author) {
+        return author == null ? null : author.trim().toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,14 @@
+package com.example.quote.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable view of a persisted quote, used to keep the in-memory indexes in sync
+ */
+public record QuoteSnapshot(long id, String text, String author, LocalDateTime createdAt, long version) {
+
+    public static QuoteSnapshot from(Quote quote) {
+        return new QuoteSnapshot(quote.getId(), quote.getText(), quote.getAuthor(), quote.getCreatedAt(),
+                quote.getVersion() == null ? 0 : quote.getVersion());
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.quote.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * All-time view total of a quote. Kept out of {@link Quote} so flushing views never touches the quote row,
+ * its version or its updated-at time; rows are only ever incremented by batched set-wise merges.
+ */
+@Entity
+@Table(name = "quote_views", indexes = @Index(name = "idx_quote_views_views", columnList = "views"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteViews {
+
+    @Id
+    @Column(name = "quote_id")
+    private Long quoteId;
+
+    @Column(nullable = false)
+    private long views;
+}
@@ -0,0 +1,7 @@
+package com.example.quote.model;
+
+/**
+ * Views of one quote, over a window or since tracking began
+ */
+public record ViewCount(long quoteId, long views) {
+}
@@ -0,0 +1,169 @@
+package com.example.quote.popularity;
+
+import com.example.quote.config.QuoteProperties;
+import com.example.quote.event.QuoteChangedEvent;
+import com.example.quote.index.QuoteSampler;
+import com.example.quote.model.ViewCount;
+import com.example.quote.repository.QuoteViewsRepository;
+import com.example.quote.util.LongIntHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Counts quote views and ranks the most viewed quotes.
+ * Request threads only bump an in-memory counter. Every flush interval the counts are drained, added to the
+ * trailing windows kept in memory and merged into the all-time totals in {@code quote_views} with one batched
+ * statement per quote viewed since the last flush. The rankings are recomputed at the same time, so reading
+ * them costs nothing and they trail live traffic by up to one interval.
+ *
+ * <p>The windows only see this node's views; all-time totals add up the views of every node.
+ * After each flush the longest window's totals become the weights of {@link QuoteSampler}'s weighted picks.
+ */
+@Component
+@Slf4j
+public class QuotePopularity {
+
+    private static final String MERGE_SQL = "MERGE INTO quote_views v "
+            + "USING (SELECT CAST(? AS BIGINT) AS quote_id, CAST(? AS BIGINT) AS views) d ON v.quote_id = d.quote_id "
+            + "WHEN MATCHED THEN UPDATE SET views = v.views + d.views "
+            + "WHEN NOT MATCHED THEN INSERT (quote_id, views) VALUES (d.quote_id, d.views)";
+
+    private final StripedViewCounter counter = new StripedViewCounter(Runtime.getRuntime().availableProcessors());
+    private final QuoteViewsRepository quoteViewsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final QuoteSampler quoteSampler;
+    private final List<Duration> windows;
+    private final long bucketMillis;
+    private final int rankedQuotes;
+    private final ViewWindows viewWindows;
+    private final int weightWindow;
+
+    /** Counts drained but not yet written, kept across a failed flush; guarded by {@code this} */
+    private LongIntHashMap unwritten = new LongIntHashMap();
+    /** Deletions reported since the last flush; lock-free, so commit listeners never wait for a flush */
+    private final Queue<Long> reportedDeletions = new ConcurrentLinkedQueue<>();
+    /** Quotes deleted whose all-time rows the next flush removes, kept across a failed flush; guarded by {@code this} */
+    private final Set<Long> deleted = new HashSet<>();
+
+    private volatile Map<Duration, List<ViewCount>> windowRankings = Map.of();
+    private volatile List<ViewCount> allTimeRanking = List.of();
+
+    public QuotePopularity(QuoteProperties quoteProperties, QuoteViewsRepository quoteViewsRepository,
+                           JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           QuoteSampler quoteSampler) {
+        QuoteProperties.Popularity properties = quoteProperties.getPopularity();
+        this.quoteViewsRepository = quoteViewsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.quoteSampler = quoteSampler;
+        this.windows = List.copyOf(properties.getWindows());
+        this.bucketMillis = properties.getBucketSize().toMillis();
+        this.rankedQuotes = properties.getRankedQuotes();
+        this.viewWindows = ViewWindows.covering(windows, properties.getBucketSize());
+        this.weightWindow = IntStream.range(0, windows.size())
+                .reduce((a, b) -> windows.get(b).compareTo(windows.get(a)) > 0 ? b : a)
+                .orElse(-1);
+    }
+
+    public void record(long quoteId) {
+        counter.record(quoteId);
+    }
+
+    /**
+     * Windows that are ranked, shortest first as configured
+     */
+    public List<Duration> windows() {
+        return windows;
+    }
+
+    /**
+     * Most viewed quotes as of the last flush, most viewed first
+     *
+     * @param window one of {@link #windows()}, or {@code null} for all time
+     */
+    public List<ViewCount> ranking(Duration window) {
+        return window == null ? allTimeRanking : windowRankings.getOrDefault(window, List.of());
+    }
+
+    @Scheduled(fixedDelayString = "${quote.popularity.flush-interval:PT10S}",
+            initialDelayString = "${quote.popularity.flush-interval:PT10S}")
+    public synchronized void flush() {
+        LongIntHashMap views = counter.drain();
+        viewWindows.add(System.currentTimeMillis() / bucketMillis, views);
+        views.forEach(unwritten::addTo);
+        for (Long quoteId; (quoteId = reportedDeletions.poll()) != null; ) {
+            deleted.add(quoteId);
+        }
+        for (Long quoteId : deleted) {
+            viewWindows.remove(quoteId);
+            unwritten.remove(quoteId);
+        }
+        try {
+            write(unwritten);
+            unwritten = new LongIntHashMap();
+            if (!deleted.isEmpty()) {
+                quoteViewsRepository.deleteAllByQuoteIdIn(deleted);
+                deleted.clear();
+            }
+            allTimeRanking = quoteViewsRepository.findMostViewed(Limit.of(rankedQuotes));
+        } catch (DataAccessException e) {
+            log.warn("Could not write view counts of {} quotes, retrying on the next flush", unwritten.size(), e);
+        }
+        Map<Duration, List<ViewCount>> rankings = new LinkedHashMap<>();
+        for (int i = 0; i < windows.size(); i++) {
+            rankings.put(windows.get(i), viewWindows.top(i, rankedQuotes));
+        }
+        windowRankings = rankings;
+        if (weightWindow >= 0) {
+            quoteSampler.updateWeights(viewWindows.totals(weightWindow));
+        }
+    }
+
+    /**
+     * Write out the views counted since the last flush before the application stops
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Runs after commit; the deleted quote's counts are dropped by the next flush
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuoteChanged(QuoteChangedEvent event) {
+        if (event.type() == QuoteChangedEvent.Type.DELETED) {
+            reportedDeletions.add(event.previous().id());
+        }
+    }
+
+    private void write(LongIntHashMap views) {
+        if (views.size() == 0) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(views.size());
+        views.forEach((quoteId, count) -> rows.add(new Object[]{quoteId, count}));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(MERGE_SQL, rows));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.quote.popularity;
+
+import com.example.quote.util.LongIntHashMap;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Views per quote since the last drain, spread over striped primitive maps.
+ * A recording thread starts at the stripe picked by its thread ID and moves on to the next one when that
+ * stripe is busy, so threads only ever wait for each other when every stripe is taken. Once the maps have
+ * grown to their working size, recording a view allocates nothing.
+ */
+final class StripedViewCounter {
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    StripedViewCounter(int parallelism) {
+        int count = Integer.highestOneBit(Math.max(1, 2 * parallelism - 1)) << 1;
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        mask = count - 1;
+    }
+
+    void record(long quoteId) {
+        int start = (int) Thread.currentThread().threadId();
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[(start + i) & mask];
+            if (stripe.lock.tryLock()) {
+                try {
+                    stripe.counts.addTo(quoteId, 1);
+                } finally {
+                    stripe.lock.unlock();
+                }
+                return;
+            }
+        }
+        Stripe stripe = stripes[start & mask];
+        stripe.lock.lock();
+        try {
+            stripe.counts.addTo(quoteId, 1);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Views recorded since the previous drain, summed over the stripes, which start again from empty
+     */
+    LongIntHashMap drain() {
+        LongIntHashMap total = new LongIntHashMap();
+        for (Stripe stripe : stripes) {
+            LongIntHashMap counts;
+            stripe.lock.lock();
+            try {
+                counts = stripe.counts;
+                // Sized for the last interval, so a steady load does not regrow the map
+                stripe.counts = new LongIntHashMap(counts.size());
+            } finally {
+                stripe.lock.unlock();
+            }
+            counts.forEach(total::addTo);
+        }
+        return total;
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private LongIntHashMap counts = new LongIntHashMap();
+    }
+}
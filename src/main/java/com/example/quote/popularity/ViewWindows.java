@@ -0,0 +1,164 @@
+package com.example.quote.popularity;
+
+import com.example.quote.model.ViewCount;
+import com.example.quote.util.LongIntHashMap;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Per-quote view totals over trailing windows made of whole time buckets.
+ * Each bucket's counts stay in a ring until the bucket has left the longest window. Every window keeps a
+ * running total that gains the views of each flush and loses a bucket's views when that bucket slides out,
+ * so a flush costs the quotes it touches plus, once per bucket, the bucket that expires; a window is never
+ * summed up again from its buckets. A bucket's map is only allocated once it gets a view, so many small buckets
+ * cost little while traffic is sparse. Not thread-safe; {@link QuotePopularity} serializes access.
+ */
+final class ViewWindows {
+
+    /** Fewest views first, then highest ID, so the heap head is the entry to drop */
+    private static final Comparator<ViewCount> WORST_FIRST = Comparator.comparingLong(ViewCount::views)
+            .thenComparing(Comparator.comparingLong(ViewCount::quoteId).reversed());
+
+    private final int[] spans;
+    private final LongIntHashMap[] totals;
+    private final LongIntHashMap[] ring;
+    private final long[] ringBuckets;
+    private long current = Long.MIN_VALUE;
+
+    /**
+     * Windows of the given lengths. Each spans the current, partly filled bucket plus enough whole earlier
+     * buckets to cover its full length, so right after a bucket boundary it still holds the last full window;
+     * it may count up to one bucket more than its length.
+     */
+    static ViewWindows covering(List<Duration> windows, Duration bucketSize) {
+        long bucketMillis = bucketSize.toMillis();
+        return new ViewWindows(windows.stream()
+                .mapToInt(window -> (int) ((window.toMillis() + bucketMillis - 1) / bucketMillis) + 1)
+                .toArray());
+    }
+
+    /**
+     * @param spans length of each window, in buckets
+     */
+    ViewWindows(int[] spans) {
+        this.spans = spans.clone();
+        this.totals = new LongIntHashMap[spans.length];
+        for (int i = 0; i < spans.length; i++) {
+            totals[i] = new LongIntHashMap();
+        }
+        int longest = Arrays.stream(spans).max().orElse(1);
+        this.ring = new LongIntHashMap[longest];
+        this.ringBuckets = new long[longest];
+        Arrays.fill(ringBuckets, Long.MIN_VALUE);
+    }
+
+    /**
+     * Count {@code views} in {@code bucket}; a bucket older than the newest one seen counts as the newest
+     */
+    void add(long bucket, LongIntHashMap views) {
+        advance(bucket);
+        if (views.size() == 0) {
+            return;
+        }
+        int index = slot(current);
+        if (ring[index] == null) {
+            ring[index] = new LongIntHashMap(views.size());
+        }
+        LongIntHashMap slot = ring[index];
+        views.forEach((quoteId, count) -> {
+            slot.addTo(quoteId, count);
+            for (LongIntHashMap total : totals) {
+                total.addTo(quoteId, count);
+            }
+        });
+    }
+
+    /**
+     * Forget a quote everywhere, as when it is deleted
+     */
+    void remove(long quoteId) {
+        for (LongIntHashMap total : totals) {
+            total.remove(quoteId);
+        }
+        for (LongIntHashMap slot : ring) {
+            if (slot != null) {
+                slot.remove(quoteId);
+            }
+        }
+    }
+
+    /**
+     * The {@code limit} most viewed quotes of a window, most viewed first, picked with a bounded min-heap
+     */
+    List<ViewCount> top(int window, int limit) {
+        PriorityQueue<ViewCount> heap = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        totals[window].forEach((quoteId, views) -> {
+            if (heap.size() < limit) {
+                heap.add(new ViewCount(quoteId, views));
+                return;
+            }
+            ViewCount worst = heap.peek();
+            if (views > worst.views() || (views == worst.views() && quoteId < worst.quoteId())) {
+                heap.poll();
+                heap.add(new ViewCount(quoteId, views));
+            }
+        });
+        List<ViewCount> ranked = new ArrayList<>(heap);
+        ranked.sort(Collections.reverseOrder(WORST_FIRST));
+        return ranked;
+    }
+
+    /**
+     * A copy of a window's per-quote totals
+     */
+    LongIntHashMap totals(int window) {
+        LongIntHashMap copy = new LongIntHashMap(totals[window].size());
+        totals[window].forEach(copy::put);
+        return copy;
+    }
+
+    private void advance(long bucket) {
+        if (current != Long.MIN_VALUE && bucket <= current) {
+            return;
+        }
+        if (current == Long.MIN_VALUE || bucket - current >= ring.length) {
+            // Everything counted so far has left every window
+            for (LongIntHashMap total : totals) {
+                total.clear();
+            }
+            Arrays.fill(ring, null);
+            Arrays.fill(ringBuckets, Long.MIN_VALUE);
+            current = bucket - 1;
+        }
+        for (long next = current + 1; next <= bucket; next++) {
+            for (int i = 0; i < spans.length; i++) {
+                expire(next - spans[i], totals[i]);
+            }
+            ring[slot(next)] = null;
+            ringBuckets[slot(next)] = next;
+        }
+        current = bucket;
+    }
+
+    private void expire(long bucket, LongIntHashMap total) {
+        int slot = slot(bucket);
+        if (ringBuckets[slot] != bucket || ring[slot] == null) {
+            return;
+        }
+        ring[slot].forEach((quoteId, count) -> {
+            if (total.addTo(quoteId, -count) <= 0) {
+                total.remove(quoteId);
+            }
+        });
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) ring.length);
+    }
+}
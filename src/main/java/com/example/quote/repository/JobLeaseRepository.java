@@ -0,0 +1,52 @@
+package com.example.quote.repository;
+
+import com.example.quote.model.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Lease transitions are single conditional UPDATEs, so the database decides which node wins a race
+ */
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Take the lease if it is free, expired or already ours, and {@code run} has not completed yet
+     *
+     * @return 1 if this node now holds the lease
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.expiresAt = :expiresAt "
+            + "WHERE l.name = :name "
+            + "AND (l.owner IS NULL OR l.owner = :owner OR l.expiresAt < :now) "
+            + "AND (l.lastRun IS NULL OR l.lastRun <> :run)")
+    int acquire(@Param("name") String name, @Param("owner") String owner, @Param("run") String run,
+                @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Record {@code run} as done and free the lease; fails if the lease was lost to another node meanwhile
+     *
+     * @return 1 if the run was recorded
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobLease l SET l.lastRun = :run, l.version = l.version + 1, l.owner = NULL, l.expiresAt = NULL "
+            + "WHERE l.name = :name AND l.owner = :owner")
+    int complete(@Param("name") String name, @Param("owner") String owner, @Param("run") String run);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobLease l SET l.owner = NULL, l.expiresAt = NULL WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+
+    @Query("SELECT l.version FROM JobLease l WHERE l.name = :name")
+    Optional<Long> findVersion(@Param("name") String name);
+}
@@ -1,23 +1,99 @@
 package com.example.quote.repository;
 
+import com.example.quote.dto.QuoteResponse;
+import com.example.quote.model.CatalogVersion;
 import com.example.quote.model.Quote;
+import com.example.quote.model.QuoteSnapshot;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface QuoteRepository extends JpaRepository<Quote, Long> {
 
-    List<Quote> findByAuthor(String author);
+    /**
+     * Reads rows straight into {@link QuoteResponse}; nothing enters the persistence context, so there is no
+     * entity instantiation, snapshot for dirty checking or flush. The daily flag is always false here;
+     * callers set it from the daily pick, never from the stale {@code isDailyQuote} column.
+     */
+    String SELECT_RESPONSE = "SELECT new com.example.quote.dto.QuoteResponse("
+            + "q.id, q.text, q.author, q.createdAt, FALSE, q.version) FROM Quote q ";
 
-    Optional<Quote> findByIsDailyQuoteTrue();
+    @Query(SELECT_RESPONSE + "ORDER BY q.id")
+    List<QuoteResponse> findAllResponses();
 
-    @Query("SELECT q FROM Quote q ORDER BY FUNCTION('RAND')")
-    List<Quote> findRandomQuote();
+    @Query(SELECT_RESPONSE + "WHERE q.id > :after ORDER BY q.id")
+    List<QuoteResponse> findResponsesAfter(@Param("after") long after, Limit limit);
 
-    @Query("SELECT DISTINCT q.author FROM Quote q ORDER BY q.author")
-    List<String> findAllAuthors();
+    @Query(SELECT_RESPONSE + "WHERE q.authorKey = :authorKey ORDER BY q.id")
+    List<QuoteResponse> findResponsesByAuthorKey(@Param("authorKey") String authorKey);
+
+    @Query(SELECT_RESPONSE + "WHERE q.id IN :ids")
+    List<QuoteResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.quote.model.QuoteSnapshot(q.id, q.text, q.author, q.createdAt, q.version) FROM Quote q ORDER BY q.id")
+    Stream<QuoteSnapshot> streamAllSnapshots();
+
+    @Query("SELECT new com.example.quote.model.CatalogVersion(COUNT(q), MAX(q.id), MAX(q.updatedAt)) FROM Quote q")
+    CatalogVersion findCatalogVersion();
+
+    /**
+     * Locks the rows so the snapshots stay accurate until a following set-wise update or delete commits
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.quote.model.QuoteSnapshot(q.id, q.text, q.author, q.createdAt, q.version) "
+            + "FROM Quote q WHERE q.id IN :ids ORDER BY q.id")
+    List<QuoteSnapshot> lockSnapshotsById(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.quote.model.QuoteSnapshot(q.id, q.text, q.author, q.createdAt, q.version) "
+            + "FROM Quote q WHERE q.authorKey = :authorKey ORDER BY q.id")
+    List<QuoteSnapshot> lockSnapshotsByAuthorKey(@Param("authorKey") String authorKey);
+
+    @Modifying
+    @Query("DELETE FROM Quote q WHERE q.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Quote q SET q.author = :author, q.authorKey = :authorKey, q.updatedAt = :updatedAt, "
+            + "q.version = q.version + 1 WHERE q.id IN :ids")
+    int updateAuthorByIdIn(@Param("ids") Collection<Long> ids, @Param("author") String author,
+                           @Param("authorKey") String authorKey, @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Fetched in chunks so a full-table stream never holds more than a chunk of rows in the driver
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_RESPONSE + "ORDER BY q.id")
+    Stream<QuoteResponse> streamAllResponses();
+
+    /**
+     * Populate the normalized author column for rows written before it existed
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Quote q SET q.authorKey = LOWER(TRIM(q.author)) WHERE q.authorKey IS NULL")
+    int backfillAuthorKeys();
+
+    /**
+     * Give rows written before the version column existed a starting version
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Quote q SET q.version = 0 WHERE q.version IS NULL")
+    int backfillVersions();
 }
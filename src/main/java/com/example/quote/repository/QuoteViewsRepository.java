@@ -0,0 +1,30 @@
+package com.example.quote.repository;
+
+import com.example.quote.model.QuoteViews;
+import com.example.quote.model.ViewCount;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface QuoteViewsRepository extends JpaRepository<QuoteViews, Long> {
+
+    /**
+     * Most viewed quotes of all time, walking the views index; rows of deleted quotes are skipped
+     */
+    @Query("SELECT new com.example.quote.model.ViewCount(v.quoteId, v.views) FROM QuoteViews v, Quote q "
+            + "WHERE q.id = v.quoteId ORDER BY v.views DESC, v.quoteId")
+    List<ViewCount> findMostViewed(Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM QuoteViews v WHERE v.quoteId IN :ids")
+    int deleteAllByQuoteIdIn(@Param("ids") Collection<Long> ids);
+}
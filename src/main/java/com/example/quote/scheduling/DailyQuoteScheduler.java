@@ -0,0 +1,42 @@
+package com.example.quote.scheduling;
+
+import com.example.quote.event.DailyQuoteRotatedEvent;
+import com.example.quote.index.DailyQuotePicker;
+import com.example.quote.service.QuoteService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Drives the daily rotation in a cluster. Every node polls; the first to see a new date in the default
+ * zone runs {@link QuoteService#updateDailyQuote()} under the job lease. The others notice the lease
+ * version change and announce the rotation to their own caches, without reading any quotes.
+ */
+@Component
+@RequiredArgsConstructor
+public class DailyQuoteScheduler {
+
+    static final String JOB = "daily-quote";
+
+    private final LeasedJobRunner leasedJobRunner;
+    private final QuoteService quoteService;
+    private final DailyQuotePicker dailyQuotePicker;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private long seenVersion = -1;
+
+    @Scheduled(fixedDelayString = "${quote.scheduler.poll-interval:PT10S}",
+            initialDelayString = "${quote.scheduler.poll-interval:PT10S}")
+    public synchronized void poll() {
+        LocalDate today = dailyQuotePicker.today(dailyQuotePicker.defaultZone());
+        boolean ran = leasedJobRunner.runOnce(JOB, today.toString(), quoteService::updateDailyQuote);
+        long version = leasedJobRunner.version(JOB);
+        if (!ran && seenVersion >= 0 && version != seenVersion) {
+            eventPublisher.publishEvent(new DailyQuoteRotatedEvent(today, dailyQuotePicker.pick(today)));
+        }
+        seenVersion = version;
+    }
+}
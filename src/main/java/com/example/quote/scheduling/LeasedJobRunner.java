@@ -0,0 +1,100 @@
+package com.example.quote.scheduling;
+
+import com.example.quote.config.QuoteProperties;
+import com.example.quote.model.JobLease;
+import com.example.quote.repository.JobLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs scheduled jobs so that each run happens on exactly one node of the cluster.
+ * Every node tries to take the job's {@link JobLease} for a run key; the database lets one win. If the
+ * winner dies mid-run its lease expires after {@code quote.scheduler.lease-ttl} and the next node to
+ * poll takes the run over. Node clocks must agree to well within the lease TTL.
+ */
+@Component
+@Slf4j
+public class LeasedJobRunner {
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final Duration leaseTtl;
+    private final String nodeId;
+    private final Set<String> knownJobs = ConcurrentHashMap.newKeySet();
+
+    public LeasedJobRunner(JobLeaseRepository jobLeaseRepository, QuoteProperties quoteProperties) {
+        QuoteProperties.Scheduler properties = quoteProperties.getScheduler();
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.leaseTtl = properties.getLeaseTtl();
+        this.nodeId = properties.getNodeId() == null || properties.getNodeId().isBlank()
+                ? defaultNodeId()
+                : properties.getNodeId();
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Run {@code task} for {@code run} unless another node holds the lease or the run has already completed
+     *
+     * @return {@code true} if this node ran and recorded the run
+     */
+    public boolean runOnce(String job, String run, Runnable task) {
+        register(job);
+        Instant now = Instant.now();
+        if (jobLeaseRepository.acquire(job, nodeId, run, now, now.plus(leaseTtl)) == 0) {
+            return false;
+        }
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            jobLeaseRepository.release(job, nodeId);
+            throw e;
+        }
+        if (jobLeaseRepository.complete(job, nodeId, run) == 0) {
+            log.warn("Lease on {} expired while running {}; another node may have run it as well", job, run);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Number of completed runs of {@code job} across the cluster; cheap enough to poll
+     */
+    public long version(String job) {
+        return jobLeaseRepository.findVersion(job).orElse(0L);
+    }
+
+    private void register(String job) {
+        if (knownJobs.contains(job)) {
+            return;
+        }
+        if (!jobLeaseRepository.existsById(job)) {
+            try {
+                jobLeaseRepository.saveAndFlush(JobLease.builder().name(job).build());
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the row first
+            }
+        }
+        knownJobs.add(job);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.quote.service;
+
+import com.example.quote.dto.QuoteResponse;
+import com.example.quote.index.DailyQuotePicker;
+import com.example.quote.model.Quote;
+import com.example.quote.repository.QuoteRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Default read model: every read is a repository query projected straight into {@link QuoteResponse}
+ */
+@Component
+@ConditionalOnProperty(prefix = "quote", name = "read-model", havingValue = "database", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DatabaseQuoteReadModel implements QuoteReadModel {
+
+    private final QuoteRepository quoteRepository;
+    private final DailyQuotePicker dailyQuotePicker;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<QuoteResponse> findAll() {
+        return markDaily(quoteRepository.findAllResponses());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<QuoteResponse> findPage(long after, int limit) {
+        return markDaily(quoteRepository.findResponsesAfter(after, Limit.of(limit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEach(Consumer<QuoteResponse> sink) {
+        long dailyId = dailyQuotePicker.currentId();
+        try (Stream<QuoteResponse> quotes = quoteRepository.streamAllResponses()) {
+            quotes.forEach(quote -> {
+                quote.setDailyQuote(quote.getId() == dailyId);
+                sink.accept(quote);
+            });
+        }
+    }
+
+    @Override
+    public QuoteResponse findById(long id) {
+        long dailyId = dailyQuotePicker.currentId();
+        // A primary key lookup goes straight to the entity loader, which is cheaper than running a projection query
+        return quoteRepository.findById(id)
+                .map(quote -> toResponse(quote, dailyId))
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<QuoteResponse> findByAuthor(String author) {
+        return markDaily(quoteRepository.findResponsesByAuthorKey(Quote.normalizeAuthor(author)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<QuoteResponse> findAllById(List<Long> ids) {
+        Map<Long, QuoteResponse> quotes = markDaily(quoteRepository.findResponsesByIdIn(ids))
+                .stream()
+                .collect(Collectors.toMap(QuoteResponse::getId, Function.identity()));
+        return ids.stream()
+                .map(quotes::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private List<QuoteResponse> markDaily(List<QuoteResponse> quotes) {
+        long dailyId = dailyQuotePicker.currentId();
+        for (QuoteResponse quote : quotes) {
+            quote.setDailyQuote(quote.getId() == dailyId);
+        }
+        return quotes;
+    }
+
+    /**
+     * Response for an entity that is already loaded, as on the write paths
+     */
+    static QuoteResponse toResponse(Quote quote, long dailyId) {
+        return QuoteResponse.builder()
+                .id(quote.getId())
+                .text(quote.getText())
+                .author(quote.getAuthor())
+                .createdAt(quote.getCreatedAt())
+                .isDailyQuote(quote.getId() == dailyId)
+                .version(quote.getVersion() == null ? 0 : quote.getVersion())
+                .build();
+    }
+}
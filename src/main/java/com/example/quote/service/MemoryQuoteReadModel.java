@@ -0,0 +1,65 @@
+package com.example.quote.service;
+
+import com.example.quote.dto.QuoteResponse;
+import com.example.quote.index.DailyQuotePicker;
+import com.example.quote.index.QuoteStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Memory-resident read model: every read is answered from {@link QuoteStore} without a transaction,
+ * a connection or Hibernate. The database stays the system of record and is only read at startup.
+ */
+@Component
+@ConditionalOnProperty(prefix = "quote", name = "read-model", havingValue = "memory")
+@RequiredArgsConstructor
+public class MemoryQuoteReadModel implements QuoteReadModel {
+
+    private final QuoteStore quoteStore;
+    private final DailyQuotePicker dailyQuotePicker;
+
+    @Override
+    public List<QuoteResponse> findAll() {
+        List<QuoteResponse> quotes = new ArrayList<>(quoteStore.size());
+        quoteStore.forEach(dailyQuotePicker.currentId(), quotes::add);
+        return quotes;
+    }
+
+    @Override
+    public List<QuoteResponse> findPage(long after, int limit) {
+        return quoteStore.page(after, limit, dailyQuotePicker.currentId());
+    }
+
+    @Override
+    public void forEach(Consumer<QuoteResponse> sink) {
+        quoteStore.forEach(dailyQuotePicker.currentId(), sink);
+    }
+
+    @Override
+    public QuoteResponse findById(long id) {
+        return quoteStore.get(id, dailyQuotePicker.currentId());
+    }
+
+    @Override
+    public List<QuoteResponse> findByAuthor(String author) {
+        return quoteStore.byAuthor(author, dailyQuotePicker.currentId());
+    }
+
+    @Override
+    public List<QuoteResponse> findAllById(List<Long> ids) {
+        long dailyId = dailyQuotePicker.currentId();
+        List<QuoteResponse> quotes = new ArrayList<>(ids.size());
+        for (long id : ids) {
+            QuoteResponse quote = quoteStore.get(id, dailyId);
+            if (quote != null) {
+                quotes.add(quote);
+            }
+        }
+        return quotes;
+    }
+}
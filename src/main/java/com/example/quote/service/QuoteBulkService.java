@@ -0,0 +1,415 @@
+package com.example.quote.service;
+
+import com.example.quote.audit.AuditLog;
+import com.example.quote.config.QuoteProperties;
+import com.example.quote.dto.BulkChangeResponse;
+import com.example.quote.dto.BulkImportResponse;
+import com.example.quote.dto.BulkRowError;
+import com.example.quote.dto.QuoteRequest;
+import com.example.quote.dto.QuoteResponse;
+import com.example.quote.event.QuoteChangedEvent;
+import com.example.quote.exception.InvalidRequestException;
+import com.example.quote.model.Quote;
+import com.example.quote.model.QuoteSnapshot;
+import com.example.quote.repository.QuoteRepository;
+import com.example.quote.util.CsvReader;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk ingestion, modification and export of the catalog.
+ * Imports are parsed as a stream, validated with the {@link QuoteRequest} rules and written with
+ * plain JDBC batches, since IDENTITY keys stop Hibernate from batching inserts.
+ * Bulk updates and deletes run as set-wise statements over ID chunks in a single transaction.
+ */
+@Service
+@Slf4j
+public class QuoteBulkService {
+
+    private static final String INSERT_SQL = "INSERT INTO quotes (text, author, author_key, created_at, updated_at, is_daily_quote, version) "
+            + "VALUES (?, ?, ?, ?, ?, FALSE, 0)";
+
+    private final QuoteService quoteService;
+    private final QuoteRepository quoteRepository;
+    private final AuditLog auditLog;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QuoteProperties.Bulk properties;
+    private final ObjectReader requestReader;
+    private final ObjectWriter responseWriter;
+
+    public QuoteBulkService(QuoteService quoteService,
+                            QuoteRepository quoteRepository,
+                            AuditLog auditLog,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            Validator validator,
+                            ApplicationEventPublisher eventPublisher,
+                            QuoteProperties quoteProperties,
+                            ObjectMapper objectMapper) {
+        this.quoteService = quoteService;
+        this.quoteRepository = quoteRepository;
+        this.auditLog = auditLog;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.properties = quoteProperties.getBulk();
+        this.requestReader = objectMapper.readerFor(QuoteRequest.class);
+        this.responseWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Import newline-delimited JSON, one {@code {"text": ..., "author": ...}} object per line.
+     * Blank lines are skipped but still counted, so reported rows are line numbers.
+     */
+    public BulkImportResponse importNdjson(InputStream input) throws IOException {
+        log.info("Starting NDJSON bulk import");
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+        String line;
+        long row = 0;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank()) {
+                continue;
+            }
+            QuoteRequest request;
+            try {
+                request = requestReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                run.reject(row, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (request == null) {
+                run.reject(row, "Expected a JSON object but found null");
+            } else {
+                run.accept(row, request);
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * Import CSV with a header row containing {@code text} and {@code author} columns; other columns are ignored.
+     * A malformed record, such as an unterminated quoted field, ends the import: it is reported as a row error
+     * and the batches read before it stay committed.
+     */
+    public BulkImportResponse importCsv(InputStream input) throws IOException {
+        log.info("Starting CSV bulk import");
+        CsvReader reader = new CsvReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<String> header;
+        try {
+            header = reader.next();
+        } catch (CsvReader.MalformedCsvException e) {
+            throw new InvalidRequestException("Malformed CSV header: " + e.getMessage());
+        }
+        int textColumn = header == null ? -1 : indexOf(header, "text");
+        int authorColumn = header == null ? -1 : indexOf(header, "author");
+        if (textColumn < 0 || authorColumn < 0) {
+            throw new InvalidRequestException("CSV header must contain 'text' and 'author' columns");
+        }
+        ImportRun run = new ImportRun();
+        long row = 0;
+        List<String> record;
+        while (true) {
+            try {
+                record = reader.next();
+            } catch (CsvReader.MalformedCsvException e) {
+                run.reject(row + 1, "Malformed CSV: " + e.getMessage() + "; no further rows were read");
+                break;
+            }
+            if (record == null) {
+                break;
+            }
+            row++;
+            if (record.size() <= Math.max(textColumn, authorColumn)) {
+                run.reject(row, "Expected " + header.size() + " columns but found " + record.size());
+            } else {
+                run.accept(row, new QuoteRequest(record.get(textColumn), record.get(authorColumn)));
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * Delete the quotes selected by {@code ids} or {@code author} in one transaction
+     */
+    public BulkChangeResponse deleteQuotes(List<Long> ids, String author) {
+        return transactionTemplate.execute(status -> {
+            List<QuoteSnapshot> quotes = lockSelection(ids, author);
+            long affected = 0;
+            for (List<Long> chunk : chunks(idsOf(quotes))) {
+                affected += quoteRepository.deleteAllByIdIn(chunk);
+            }
+            for (QuoteSnapshot quote : quotes) {
+                eventPublisher.publishEvent(QuoteChangedEvent.deleted(quote));
+                auditLog.record("quote.deleted", quote.id(), quote.author());
+            }
+            log.info("Bulk delete removed {} quotes", affected);
+            return new BulkChangeResponse(affected);
+        });
+    }
+
+    /**
+     * Reassign the quotes selected by {@code ids} or {@code author} to {@code newAuthor} in one transaction
+     */
+    public BulkChangeResponse reassignAuthor(List<Long> ids, String author, String newAuthor) {
+        return transactionTemplate.execute(status -> {
+            List<QuoteSnapshot> quotes = lockSelection(ids, author);
+            String authorKey = Quote.normalizeAuthor(newAuthor);
+            LocalDateTime now = LocalDateTime.now();
+            long affected = 0;
+            for (List<Long> chunk : chunks(idsOf(quotes))) {
+                affected += quoteRepository.updateAuthorByIdIn(chunk, newAuthor, authorKey, now);
+            }
+            for (QuoteSnapshot quote : quotes) {
+                QuoteSnapshot updated = new QuoteSnapshot(quote.id(), quote.text(), newAuthor, quote.createdAt(),
+                        quote.version() + 1);
+                eventPublisher.publishEvent(QuoteChangedEvent.updated(quote, updated));
+                auditLog.record("quote.updated", quote.id(), newAuthor);
+            }
+            log.info("Bulk update reassigned {} quotes to '{}'", affected, newAuthor);
+            return new BulkChangeResponse(affected);
+        });
+    }
+
+    public void exportNdjson(OutputStream output) throws IOException {
+        try (JsonGenerator generator = responseWriter.createGenerator(output)) {
+            generator.setRootValueSeparator(null);
+            quoteService.streamAllQuotes(quote -> {
+                try {
+                    responseWriter.writeValue(generator, quote);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * The header written here is accepted by {@link #importCsv}, so exports can be re-imported as-is
+     */
+    public void exportCsv(OutputStream output) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 1 << 16)) {
+            writer.write("id,text,author,createdAt,isDailyQuote\r\n");
+            quoteService.streamAllQuotes(quote -> {
+                try {
+                    writeCsvRow(writer, quote);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, QuoteResponse quote) throws IOException {
+        writer.write(String.valueOf(quote.getId()));
+        writer.write(',');
+        writer.write(CsvReader.escape(quote.getText()));
+        writer.write(',');
+        writer.write(CsvReader.escape(quote.getAuthor()));
+        writer.write(',');
+        writer.write(String.valueOf(quote.getCreatedAt()));
+        writer.write(',');
+        writer.write(String.valueOf(quote.isDailyQuote()));
+        writer.write("\r\n");
+    }
+
+    /**
+     * Read and lock the selected rows; the snapshots feed the change events that keep caches and indexes in sync
+     */
+    private List<QuoteSnapshot> lockSelection(List<Long> ids, String author) {
+        boolean byIds = ids != null && !ids.isEmpty();
+        boolean byAuthor = author != null && !author.isBlank();
+        if (byIds == byAuthor) {
+            throw new InvalidRequestException("Select quotes by either 'ids' or 'author'");
+        }
+        if (byAuthor) {
+            return quoteRepository.lockSnapshotsByAuthorKey(Quote.normalizeAuthor(author));
+        }
+        if (ids.contains(null)) {
+            throw new InvalidRequestException("IDs must not be null");
+        }
+        List<QuoteSnapshot> quotes = new ArrayList<>(ids.size());
+        for (List<Long> chunk : chunks(List.copyOf(new LinkedHashSet<>(ids)))) {
+            quotes.addAll(quoteRepository.lockSnapshotsById(chunk));
+        }
+        return quotes;
+    }
+
+    private static List<Long> idsOf(List<QuoteSnapshot> quotes) {
+        return quotes.stream().map(QuoteSnapshot::id).toList();
+    }
+
+    /**
+     * Keeps IN lists to a size the database plans and caches well
+     */
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += properties.getBatchSize()) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + properties.getBatchSize())));
+        }
+        return chunks;
+    }
+
+    private static int indexOf(List<String> header, String column) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).trim().toLowerCase(Locale.ROOT).equals(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Insert one batch in its own transaction and return the generated IDs in row order
+     */
+    private List<Long> insertBatch(List<PendingRow> rows) {
+        return transactionTemplate.execute(status -> jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Long> ids = new ArrayList<>(rows.size());
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+                for (PendingRow row : rows) {
+                    statement.setString(1, row.request().getText());
+                    statement.setString(2, row.request().getAuthor());
+                    statement.setString(3, Quote.normalizeAuthor(row.request().getAuthor()));
+                    statement.setTimestamp(4, now);
+                    statement.setTimestamp(5, now);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+            }
+            if (ids.size() != rows.size()) {
+                throw new IllegalStateException("Expected " + rows.size() + " generated keys but got " + ids.size());
+            }
+            LocalDateTime createdAt = now.toLocalDateTime();
+            for (int i = 0; i < rows.size(); i++) {
+                QuoteRequest request = rows.get(i).request();
+                eventPublisher.publishEvent(QuoteChangedEvent.created(
+                        new QuoteSnapshot(ids.get(i), request.getText(), request.getAuthor(), createdAt, 0)));
+            }
+            return ids;
+        }));
+    }
+
+    private record PendingRow(long row, QuoteRequest request) {
+    }
+
+    /**
+     * Accumulates rows into batches and collects the per-row outcome of one import
+     */
+    private class ImportRun {
+
+        private final List<PendingRow> batch = new ArrayList<>(properties.getBatchSize());
+        private final List<BulkRowError> errors = new ArrayList<>();
+        private final long startNanos = System.nanoTime();
+        private long received;
+        private long imported;
+        private long failed;
+
+        void accept(long row, QuoteRequest request) {
+            received++;
+            Set<ConstraintViolation<QuoteRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                recordFailure(row, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            batch.add(new PendingRow(row, request));
+            if (batch.size() >= properties.getBatchSize()) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            received++;
+            recordFailure(row, message);
+        }
+
+        BulkImportResponse finish() {
+            flush();
+            log.info("Bulk import finished: {} received, {} imported, {} failed in {} ms",
+                    received, imported, failed, (System.nanoTime() - startNanos) / 1_000_000);
+            return BulkImportResponse.builder()
+                    .received(received)
+                    .imported(imported)
+                    .failed(failed)
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                imported += insertBatch(batch).size();
+            } catch (DataAccessException e) {
+                rejectBatch(e.getMostSpecificCause().getMessage());
+            } catch (IllegalStateException e) {
+                rejectBatch(e.getMessage());
+            }
+            batch.clear();
+        }
+
+        private void rejectBatch(String cause) {
+            log.warn("Bulk import batch of {} rows failed: {}", batch.size(), cause);
+            String message = "Batch rejected by the database: " + cause;
+            batch.forEach(row -> recordFailure(row.row(), message));
+        }
+
+        private void recordFailure(long row, String message) {
+            failed++;
+            if (errors.size() < properties.getMaxReportedErrors()) {
+                errors.add(new BulkRowError(row, message));
+            }
+        }
+    }
+}
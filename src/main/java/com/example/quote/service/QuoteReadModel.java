@@ -0,0 +1,40 @@
+package com.example.quote.service;
+
+import com.example.quote.dto.QuoteResponse;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Where {@link QuoteService} reads quotes from, selected by {@code quote.read-model}.
+ * Writes always go through the repository; implementations only answer reads.
+ */
+public interface QuoteReadModel {
+
+    List<QuoteResponse> findAll();
+
+    /**
+     * Up to {@code limit} quotes with IDs greater than {@code after}, in ID order
+     */
+    List<QuoteResponse> findPage(long after, int limit);
+
+    /**
+     * Push every quote to {@code sink} in ID order without materializing the catalog
+     */
+    void forEach(Consumer<QuoteResponse> sink);
+
+    /**
+     * @return the quote, or {@code null} if it does not exist
+     */
+    QuoteResponse findById(long id);
+
+    /**
+     * Case-insensitive author match
+     */
+    List<QuoteResponse> findByAuthor(String author);
+
+    /**
+     * Quotes in the order of {@code ids}, skipping IDs that no longer exist
+     */
+    List<QuoteResponse> findAllById(List<Long> ids);
+}
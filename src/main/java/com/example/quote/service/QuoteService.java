@@ -1,46 +1,155 @@
 package com.example.quote.service;
 
+import com.example.quote.audit.AuditLog;
+import com.example.quote.cache.DailyQuote;
+import com.example.quote.cache.DailyQuoteCache;
+import com.example.quote.cache.EncodedQuote;
+import com.example.quote.cache.QuoteBatch;
+import com.example.quote.cache.QuoteBodyEncoder;
+import com.example.quote.cache.QuoteByIdCache;
+import com.example.quote.dto.AuthorSummary;
+import com.example.quote.dto.QuotePage;
 import com.example.quote.dto.QuoteRequest;
 import com.example.quote.dto.QuoteResponse;
+import com.example.quote.dto.TopQuote;
+import com.example.quote.event.DailyQuoteRotatedEvent;
+import com.example.quote.event.QuoteChangedEvent;
+import com.example.quote.exception.InvalidRequestException;
+import com.example.quote.exception.PreconditionFailedException;
 import com.example.quote.exception.QuoteNotFoundException;
+import com.example.quote.index.AuthorDirectory;
+import com.example.quote.index.DailyQuotePicker;
+import com.example.quote.index.QuoteIdIndex;
+import com.example.quote.index.QuoteSampler;
+import com.example.quote.index.QuoteSearchIndex;
+import com.example.quote.metrics.QuoteMetrics;
 import com.example.quote.model.Quote;
+import com.example.quote.model.QuoteSnapshot;
+import com.example.quote.model.ViewCount;
+import com.example.quote.popularity.QuotePopularity;
 import com.example.quote.repository.QuoteRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class QuoteService {
 
+    /**
+     * A picked ID can be deleted before it is loaded; retrying keeps the pick uniform over live quotes
+     */
+    private static final int RANDOM_PICK_ATTEMPTS = 5;
+
     private final QuoteRepository quoteRepository;
+    private final QuoteIdIndex quoteIdIndex;
+    private final AuthorDirectory authorDirectory;
+    private final QuoteSearchIndex quoteSearchIndex;
+    private final QuoteSampler quoteSampler;
+    private final QuotePopularity quotePopularity;
+    private final DailyQuoteCache dailyQuoteCache;
+    private final DailyQuotePicker dailyQuotePicker;
+    private final QuoteByIdCache quoteByIdCache;
+    private final QuoteBodyEncoder quoteBodyEncoder;
+    private final QuoteReadModel quoteReadModel;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QuoteMetrics quoteMetrics;
+    private final AuditLog auditLog;
 
-    @Transactional(readOnly = true)
     public List<QuoteResponse> getAllQuotes() {
-        log.info("Fetching all quotes");
-        return quoteRepository.findAll()
-                .stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        auditLog.recordRead("quote.list", 0, null);
+        List<QuoteResponse> quotes = quoteReadModel.findAll();
+        quoteMetrics.recordRows("all", quotes.size());
+        return quotes;
+    }
+
+    /**
+     * Keyset page of quotes with IDs greater than {@code after}; one extra row is read to detect the last page
+     */
+    public QuotePage getQuotePage(long after, int limit) {
+        auditLog.recordRead("quote.page", after, null);
+        List<QuoteResponse> quotes = quoteReadModel.findPage(after, limit + 1);
+        quoteMetrics.recordRows("page", quotes.size());
+        if (quotes.size() <= limit) {
+            return new QuotePage(quotes, null);
+        }
+        quotes.remove(limit);
+        return new QuotePage(quotes, quotes.get(limit - 1).getId());
+    }
+
+    /**
+     * Push every quote to {@code sink} in ID order without materializing the table
+     */
+    public void streamAllQuotes(Consumer<QuoteResponse> sink) {
+        auditLog.recordRead("quote.stream", 0, null);
+        AtomicLong rows = new AtomicLong();
+        try {
+            quoteReadModel.forEach(quote -> {
+                sink.accept(quote);
+                rows.incrementAndGet();
+            });
+        } finally {
+            quoteMetrics.recordRows("stream", rows.get());
+        }
     }
 
-    @Transactional(readOnly = true)
     public QuoteResponse getQuoteById(Long id) {
-        log.info("Fetching quote with id: {}", id);
-        Quote quote = quoteRepository.findById(id)
-                .orElseThrow(() -> new QuoteNotFoundException(id));
-        return convertToResponse(quote);
+        return getEncodedQuote(id).quote();
+    }
+
+    /**
+     * The quote with its pre-serialized body; served from the quote-by-ID cache, so it is encoded once per change
+     */
+    public EncodedQuote getEncodedQuote(long id) {
+        auditLog.recordRead("quote.get", id, null);
+        EncodedQuote quote = quoteByIdCache.get(id, this::loadEncodedQuote);
+        if (quote == null) {
+            throw new QuoteNotFoundException(id);
+        }
+        quotePopularity.record(id);
+        return quote;
+    }
+
+    /**
+     * Quotes for {@code ids} in request order, duplicates collapsed. Cached quotes are used as is and the
+     * rest are read with one query; IDs that do not exist are reported rather than failing the batch.
+     */
+    public QuoteBatch getEncodedQuotes(List<Long> ids) {
+        auditLog.recordRead("quote.batch", 0, null);
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, EncodedQuote> found = quoteByIdCache.getAll(requested, this::loadEncodedQuotes);
+        List<EncodedQuote> quotes = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            EncodedQuote quote = found.get(id);
+            if (quote != null) {
+                quotes.add(quote);
+                quotePopularity.record(id);
+            } else {
+                missing.add(id);
+            }
+        }
+        quoteMetrics.recordRows("batch", quotes.size());
+        return new QuoteBatch(quotes, missing);
     }
 
     @Transactional
     public QuoteResponse createQuote(QuoteRequest request) {
-        log.info("Creating new quote by author: {}", request.getAuthor());
         Quote quote = Quote.builder()
                 .text(request.getText())
                 .author(request.getAuthor())
@@ -48,101 +157,211 @@ public class QuoteService {
                 .build();
         
         Quote savedQuote = quoteRepository.save(quote);
-        log.info("Quote created with id: {}", savedQuote.getId());
+        eventPublisher.publishEvent(QuoteChangedEvent.created(QuoteSnapshot.from(savedQuote)));
+        auditLog.record("quote.created", savedQuote.getId(), savedQuote.getAuthor());
         return convertToResponse(savedQuote);
     }
 
+    /**
+     * @param expectedVersions versions the client accepts ({@code If-Match}), or {@code null} to update unconditionally.
+     *                         A writer that commits between this check and the flush is caught by the {@code @Version}
+     *                         column, so no row lock is taken.
+     */
     @Transactional
-    public QuoteResponse updateQuote(Long id, QuoteRequest request) {
-        log.info("Updating quote with id: {}", id);
+    public QuoteResponse updateQuote(Long id, QuoteRequest request, Set<Long> expectedVersions) {
         Quote quote = quoteRepository.findById(id)
                 .orElseThrow(() -> new QuoteNotFoundException(id));
+        if (expectedVersions != null && !expectedVersions.contains(quote.getVersion())) {
+            throw new PreconditionFailedException("Quote " + id + " is at version " + quote.getVersion()
+                    + ", not one of " + expectedVersions);
+        }
+        QuoteSnapshot previous = QuoteSnapshot.from(quote);
         
         quote.setText(request.getText());
         quote.setAuthor(request.getAuthor());
         
-        Quote updatedQuote = quoteRepository.save(quote);
-        log.info("Quote updated successfully");
+        // Flush now so the response carries the incremented version
+        Quote updatedQuote = quoteRepository.saveAndFlush(quote);
+        eventPublisher.publishEvent(QuoteChangedEvent.updated(previous, QuoteSnapshot.from(updatedQuote)));
+        auditLog.record("quote.updated", id, updatedQuote.getAuthor());
         return convertToResponse(updatedQuote);
     }
 
     @Transactional
     public void deleteQuote(Long id) {
-        log.info("Deleting quote with id: {}", id);
-        if (!quoteRepository.existsById(id)) {
-            throw new QuoteNotFoundException(id);
-        }
-        quoteRepository.deleteById(id);
-        log.info("Quote deleted successfully");
+        Quote quote = quoteRepository.findById(id)
+                .orElseThrow(() -> new QuoteNotFoundException(id));
+        quoteRepository.delete(quote);
+        eventPublisher.publishEvent(QuoteChangedEvent.deleted(QuoteSnapshot.from(quote)));
+        auditLog.record("quote.deleted", id, quote.getAuthor());
     }
 
-    @Transactional(readOnly = true)
     public QuoteResponse getDailyQuote() {
-        log.info("Fetching daily quote");
-        Quote dailyQuote = quoteRepository.findByIsDailyQuoteTrue()
+        return getDailyQuoteSnapshot(dailyQuotePicker.defaultZone()).quote();
+    }
+
+    /**
+     * Today's quote in {@code zone}, served from memory; the database is only read when a date's quote is first loaded
+     */
+    public DailyQuote getDailyQuoteSnapshot(ZoneId zone) {
+        auditLog.recordRead("quote.daily", 0, null);
+        return dailyQuoteCache.get(zone)
                 .orElseThrow(() -> new QuoteNotFoundException("No daily quote available"));
-        return convertToResponse(dailyQuote);
     }
 
-    @Transactional(readOnly = true)
+    public ZoneId getDefaultZone() {
+        return dailyQuotePicker.defaultZone();
+    }
+
     public QuoteResponse getRandomQuote() {
-        log.info("Fetching random quote");
-        List<Quote> quotes = quoteRepository.findRandomQuote();
-        if (quotes.isEmpty()) {
-            throw new QuoteNotFoundException("No quotes available");
+        return getEncodedRandomQuote().quote();
+    }
+
+    public EncodedQuote getEncodedRandomQuote() {
+        return getEncodedRandomQuote(null, Integer.MAX_VALUE, Set.of(), false);
+    }
+
+    /**
+     * A random quote among those by {@code author} (any if {@code null}) with at most {@code maxLength}
+     * characters and not in {@code exclude}; chosen uniformly, or in proportion to recent views if {@code weighted}
+     */
+    public EncodedQuote getEncodedRandomQuote(String author, int maxLength, Set<Long> exclude, boolean weighted) {
+        auditLog.recordRead("quote.random", 0, author);
+        boolean filtered = author != null || maxLength < Integer.MAX_VALUE || !exclude.isEmpty();
+        for (int attempt = 0; attempt < RANDOM_PICK_ATTEMPTS; attempt++) {
+            long id = filtered || weighted ? pickOne(author, maxLength, exclude, weighted) : quoteIdIndex.pickRandom();
+            if (id == QuoteIdIndex.NONE) {
+                break;
+            }
+            EncodedQuote quote = quoteByIdCache.get(id, this::loadEncodedQuote);
+            if (quote != null) {
+                quotePopularity.record(id);
+                return quote;
+            }
+        }
+        throw new QuoteNotFoundException(filtered ? "No quotes match the filters" : "No quotes available");
+    }
+
+    /**
+     * Up to {@code count} distinct random quotes matching the filters, sampled in memory; only the picks are loaded.
+     * Fewer are returned when fewer match.
+     */
+    public List<EncodedQuote> getEncodedRandomQuotes(String author, int maxLength, Set<Long> exclude, int count,
+                                                     boolean weighted) {
+        auditLog.recordRead("quote.random", 0, author);
+        long[] picked = weighted
+                ? quoteSampler.weightedSample(author, maxLength, exclude, count)
+                : quoteSampler.sample(author, maxLength, exclude, count);
+        List<Long> ids = Arrays.stream(picked).boxed().toList();
+        Map<Long, EncodedQuote> found = quoteByIdCache.getAll(ids, this::loadEncodedQuotes);
+        List<EncodedQuote> quotes = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            EncodedQuote quote = found.get(id);
+            if (quote != null) {
+                quotes.add(quote);
+                quotePopularity.record(id);
+            }
+        }
+        quoteMetrics.recordRows("random", quotes.size());
+        return quotes;
+    }
+
+    /**
+     * The most viewed quotes over a trailing {@code window}, or of all time if {@code null}.
+     * The ranking is kept in memory; only the ranked quotes missing from the cache are loaded.
+     */
+    public List<TopQuote> getTopQuotes(Duration window, int limit) {
+        auditLog.recordRead("quote.top", 0, null);
+        if (window != null && !quotePopularity.windows().contains(window)) {
+            throw new InvalidRequestException("Unknown window " + window + ", expected all or one of " + quotePopularity.windows());
+        }
+        List<ViewCount> ranking = quotePopularity.ranking(window);
+        ranking = ranking.subList(0, Math.min(limit, ranking.size()));
+        Map<Long, EncodedQuote> found = quoteByIdCache.getAll(
+                ranking.stream().map(ViewCount::quoteId).toList(), this::loadEncodedQuotes);
+        List<TopQuote> top = new ArrayList<>(ranking.size());
+        for (ViewCount entry : ranking) {
+            EncodedQuote quote = found.get(entry.quoteId());
+            if (quote != null) {
+                top.add(new TopQuote(entry.views(), quote.quote()));
+            }
         }
-        return convertToResponse(quotes.get(0));
+        quoteMetrics.recordRows("top", top.size());
+        return top;
     }
 
-    @Transactional(readOnly = true)
     public List<QuoteResponse> getQuotesByAuthor(String author) {
-        log.info("Fetching quotes by author: {}", author);
-        return quoteRepository.findByAuthor(author)
-                .stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        auditLog.recordRead("quote.author", 0, author);
+        List<QuoteResponse> quotes = quoteReadModel.findByAuthor(author);
+        quoteMetrics.recordRows("author", quotes.size());
+        return quotes;
     }
 
-    @Transactional(readOnly = true)
-    public List<String> getAllAuthors() {
-        log.info("Fetching all authors");
-        return quoteRepository.findAllAuthors();
+    /**
+     * Matching and ranking run against the in-memory index; only the returned page is loaded
+     */
+    public List<QuoteResponse> searchQuotes(String query, int limit) {
+        auditLog.recordRead("quote.search", 0, query);
+        List<Long> ids = quoteSearchIndex.search(query, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<QuoteResponse> quotes = quoteReadModel.findAllById(ids);
+        quoteMetrics.recordRows("search", quotes.size());
+        return quotes;
+    }
+
+    public List<String> getAllAuthors(String prefix) {
+        auditLog.recordRead("author.list", 0, prefix);
+        return authorDirectory.names(prefix);
+    }
+
+    public List<AuthorSummary> getAuthorSummaries(String prefix) {
+        auditLog.recordRead("author.counts", 0, prefix);
+        return authorDirectory.summaries(prefix);
     }
 
     /**
-     * Scheduled task that runs daily at midnight to select a new daily quote
+     * Run once per day by {@code DailyQuoteScheduler} on a single node. The new daily quote is computed,
+     * not stored, so this only announces it to the caches; nothing is written.
      */
-    @Scheduled(cron = "0 0 0 * * *") // Runs at midnight every day
-    @Transactional
     public void updateDailyQuote() {
         log.info("Running scheduled task: updateDailyQuote");
-        
-        // Clear previous daily quote
-        quoteRepository.findByIsDailyQuoteTrue().ifPresent(quote -> {
-            quote.setDailyQuote(false);
-            quoteRepository.save(quote);
-        });
-        
-        // Select a random quote as the new daily quote
-        List<Quote> quotes = quoteRepository.findRandomQuote();
-        if (!quotes.isEmpty()) {
-            Quote newDailyQuote = quotes.get(0);
-            newDailyQuote.setDailyQuote(true);
-            quoteRepository.save(newDailyQuote);
-            log.info("New daily quote set: '{}' by {}", 
-                    newDailyQuote.getText(), newDailyQuote.getAuthor());
+        quoteMetrics.dailyRotation().record(this::rotateDailyQuote);
+    }
+
+    private void rotateDailyQuote() {
+        LocalDate today = dailyQuotePicker.today(dailyQuotePicker.defaultZone());
+        long id = dailyQuotePicker.pick(today);
+        eventPublisher.publishEvent(new DailyQuoteRotatedEvent(today, id));
+        if (id != QuoteIdIndex.NONE) {
+            log.info("Daily quote for {}: id {}", today, id);
         } else {
             log.warn("No quotes available to set as daily quote");
         }
     }
 
-    private QuoteResponse convertToResponse(Quote quote) {
-        return QuoteResponse.builder()
-                .id(quote.getId())
-                .text(quote.getText())
-                .author(quote.getAuthor())
-                .createdAt(quote.getCreatedAt())
-                .isDailyQuote(quote.isDailyQuote())
-                .build();
+    private long pickOne(String author, int maxLength, Set<Long> exclude, boolean weighted) {
+        long[] picked = weighted
+                ? quoteSampler.weightedSample(author, maxLength, exclude, 1)
+                : quoteSampler.sample(author, maxLength, exclude, 1);
+        return picked.length == 0 ? QuoteIdIndex.NONE : picked[0];
+    }
+
+    private EncodedQuote loadEncodedQuote(long id) {
+        QuoteResponse quote = quoteReadModel.findById(id);
+        return quote == null ? null : quoteBodyEncoder.encode(quote);
+    }
+
+    private List<EncodedQuote> loadEncodedQuotes(List<Long> ids) {
+        return quoteReadModel.findAllById(ids)
+                .stream()
+                .map(quoteBodyEncoder::encode)
+                .toList();
+    }
+
+    // Package-private so the JMH benchmarks can measure the mapping on its own
+    QuoteResponse convertToResponse(Quote quote) {
+        return DatabaseQuoteReadModel.toResponse(quote, dailyQuotePicker.currentId());
     }
 }
@@ -0,0 +1,230 @@
+package com.example.quote.stream;
+
+import com.example.quote.config.QuoteProperties;
+import com.example.quote.event.DailyQuoteRotatedEvent;
+import com.example.quote.event.QuoteChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fan-out of committed quote changes and daily rotations to server-sent event subscribers.
+ * Each event is serialized once and offered to every subscriber's bounded queue without blocking the
+ * writer; a subscriber whose queue is full is disconnected rather than slowing everyone else down, and
+ * can resume from the replay buffer with {@code Last-Event-ID}. Idle subscribers hold no thread: queues
+ * are drained on virtual threads only while they have something to send.
+ *
+ * <p>Event IDs are {@code <stream>-<sequence>}; the stream part changes on every restart, so a client
+ * resuming against another process or node gets a {@code reset} event and should reload its state.
+ */
+@Component
+@Slf4j
+public class QuoteEventStream {
+
+    static final String RESET = "reset";
+
+    private static final FeedEvent HEARTBEAT = new FeedEvent(0, null, null);
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final String streamId = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter evicted;
+
+    /** Ring of recent events, slot {@code sequence % length}; guarded by {@code this} together with {@link #sequence} */
+    private final FeedEvent[] replay;
+    private long sequence;
+
+    public QuoteEventStream(ObjectMapper objectMapper, QuoteProperties quoteProperties, MeterRegistry registry) {
+        QuoteProperties.EventStream properties = quoteProperties.getStream();
+        this.objectMapper = objectMapper;
+        this.bufferSize = properties.getBufferSize();
+        this.timeoutMillis = properties.getTimeout().toMillis();
+        this.replay = new FeedEvent[properties.getReplaySize()];
+        this.evicted = Counter.builder("quote.stream.evicted")
+                .description("Subscribers disconnected because they could not keep up")
+                .register(registry);
+        Gauge.builder("quote.stream.subscribers", subscribers, Set::size)
+                .description("Connected server-sent event subscribers")
+                .register(registry);
+    }
+
+    /**
+     * @param lastEventId the {@code Last-Event-ID} of a reconnecting client, or {@code null};
+     *                    events after it are replayed if they are still buffered
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(error -> close(subscriber));
+        synchronized (this) {
+            // Registered under the publish lock, so no event is both replayed and delivered, or neither
+            if (lastEventId != null) {
+                List<FeedEvent> missed = since(lastEventId);
+                if (missed == null || missed.size() > bufferSize) {
+                    subscriber.queue.offer(new FeedEvent(sequence, RESET, "{}"));
+                } else {
+                    subscriber.queue.addAll(missed);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        drain(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuoteChanged(QuoteChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> publish("quote.created", event.current());
+            case UPDATED -> publish("quote.updated", event.current());
+            case DELETED -> publish("quote.deleted", Map.of("id", event.previous().id()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyQuoteRotated(DailyQuoteRotatedEvent event) {
+        publish("daily.rotated", event);
+    }
+
+    @Scheduled(fixedDelayString = "${quote.stream.heartbeat-interval:PT15S}",
+            initialDelayString = "${quote.stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.isEmpty() && subscriber.queue.offer(HEARTBEAT)) {
+                drain(subscriber);
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(this::close);
+        senders.shutdown();
+    }
+
+    private void publish(String name, Object payload) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {} event", name, e);
+            return;
+        }
+        List<Subscriber> ready = new ArrayList<>();
+        synchronized (this) {
+            FeedEvent event = new FeedEvent(++sequence, name, data);
+            replay[(int) (event.sequence() % replay.length)] = event;
+            // Offered under the lock so every subscriber sees events in sequence order
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.queue.offer(event)) {
+                    ready.add(subscriber);
+                } else {
+                    evicted.increment();
+                    log.debug("Disconnecting slow event stream subscriber");
+                    close(subscriber);
+                }
+            }
+        }
+        ready.forEach(this::drain);
+    }
+
+    /**
+     * @return buffered events after {@code lastEventId}, or {@code null} if some of them are no longer buffered
+     *         or the ID belongs to another stream
+     */
+    private List<FeedEvent> since(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(streamId)) {
+            return null;
+        }
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (last > sequence || sequence - last > replay.length) {
+            return null;
+        }
+        List<FeedEvent> missed = new ArrayList<>((int) (sequence - last));
+        for (long next = last + 1; next <= sequence; next++) {
+            missed.add(replay[(int) (next % replay.length)]);
+        }
+        return missed;
+    }
+
+    private void drain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        senders.execute(() -> {
+            try {
+                FeedEvent event;
+                while (!subscriber.closed && (event = subscriber.queue.poll()) != null) {
+                    subscriber.emitter.send(event == HEARTBEAT
+                            ? SseEmitter.event().comment("heartbeat")
+                            : SseEmitter.event().id(streamId + "-" + event.sequence()).name(event.name()).data(event.data()));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; the container completes the request and reports it through onError
+                subscriber.closed = true;
+                subscribers.remove(subscriber);
+            } finally {
+                subscriber.draining.set(false);
+            }
+            if (!subscriber.closed && !subscriber.queue.isEmpty()) {
+                drain(subscriber);
+            }
+        });
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+        subscriber.emitter.complete();
+    }
+
+    private record FeedEvent(long sequence, String name, String data) {
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<FeedEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, ArrayBlockingQueue<FeedEvent> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.quote.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, double-quoted fields with {@code ""} escapes,
+ * line breaks allowed inside quotes. Only one record is held in memory at a time.
+ */
+public final class CsvReader implements Closeable {
+
+    private final Reader reader;
+    private int pending = -2;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader, 1 << 16);
+    }
+
+    /**
+     * @return the next record, or null at end of input
+     * @throws MalformedCsvException if the input is not valid CSV; other {@link IOException}s come from the reader
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean quotedField = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new MalformedCsvException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty() && !quotedField) {
+                quoted = true;
+                quotedField = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                quotedField = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pending = next;
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    /**
+     * The input is readable but is not valid CSV
+     */
+    public static final class MalformedCsvException extends IOException {
+
+        public MalformedCsvException(String message) {
+            super(message);
+        }
+    }
+}
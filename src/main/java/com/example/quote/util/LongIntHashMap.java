@@ -0,0 +1,181 @@
+package com.example.quote.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to {@code int} values.
+ * Avoids boxing on hot lookup paths; not thread-safe, callers guard it themselves.
+ * Key {@code 0} is reserved as the empty-slot marker, which is safe for database identifiers: it is never
+ * present, so lookups and removals of it miss and writes of it are rejected.
+ */
+public final class LongIntHashMap {
+
+    public static final int MISSING = -1;
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int resizeAt;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(long key) {
+        if (key == 0) {
+            return MISSING;
+        }
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            long existing = keys[slot];
+            if (existing == key) {
+                return values[slot];
+            }
+            if (existing == 0) {
+                return MISSING;
+            }
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != MISSING;
+    }
+
+    /**
+     * @return the previous value, or {@link #MISSING}
+     */
+    public int put(long key, int value) {
+        checkKey(key);
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return MISSING;
+    }
+
+    /**
+     * Add {@code delta} to the value of {@code key}, which starts from 0 if absent
+     *
+     * @return the new value
+     */
+    public int addTo(long key, int delta) {
+        checkKey(key);
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot] += delta;
+            }
+        }
+        put(key, delta);
+        return delta;
+    }
+
+    /**
+     * @return the removed value, or {@link #MISSING}
+     */
+    public int remove(long key) {
+        if (key == 0) {
+            return MISSING;
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != key) {
+            if (keys[slot] == 0) {
+                return MISSING;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int removed = values[slot];
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = slot(keys[next], mask);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        size--;
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    /**
+     * Visit every entry in no particular order; the map must not be modified meanwhile
+     */
+    public void forEach(EntryConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i], mask);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static void checkKey(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        void accept(long key, int value);
+    }
+}
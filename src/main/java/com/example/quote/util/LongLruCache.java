@@ -0,0 +1,230 @@
+package com.example.quote.util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size-bounded LRU cache from primitive {@code long} keys to values.
+ * Split into independently locked segments so concurrent readers of different keys rarely contend;
+ * each segment keeps its entries in preallocated arrays linked into a recency list, so hits and
+ * evictions allocate nothing. Key {@code 0} is reserved, as in {@link LongIntHashMap}.
+ */
+public final class LongLruCache<V> {
+
+    private static final int NIL = -1;
+
+    private final Segment<V>[] segments;
+    private final int segmentMask;
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public LongLruCache(int maxSize, int segmentCount) {
+        int count = segmentCount <= 1 ? 1 : Integer.highestOneBit(segmentCount - 1) << 1;
+        int perSegment = Math.max(1, (maxSize + count - 1) / count);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(perSegment, evictions);
+        }
+        this.segmentMask = count - 1;
+    }
+
+    /**
+     * @return the cached value, or {@code null}; a hit marks the entry most recently used
+     */
+    public V get(long key) {
+        return segment(key).get(key);
+    }
+
+    /**
+     * Version of the key's segment, advanced by every {@link #remove} and {@link #clear}.
+     * Read it before loading a value and pass it to {@link #putIfUnchanged} so a value read
+     * concurrently with an invalidation is not cached.
+     */
+    public long version(long key) {
+        return segment(key).version;
+    }
+
+    /**
+     * @return {@code false} if the key's segment was invalidated since {@code version} was read
+     */
+    public boolean putIfUnchanged(long key, V value, long version) {
+        return segment(key).put(key, value, version);
+    }
+
+    public void remove(long key) {
+        segment(key).remove(key);
+    }
+
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private Segment<V> segment(long key) {
+        // High bits of the Fibonacci hash, so segment choice is independent of the slot within the segment's index
+        return segments[(int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & segmentMask];
+    }
+
+    private static final class Segment<V> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LongAdder evictions;
+        private final LongIntHashMap index;
+        private final long[] keys;
+        private final Object[] values;
+        /** Recency list: {@code head} is the most recently used entry, {@code tail} the eviction victim */
+        private final int[] prev;
+        private final int[] next;
+        private int head = NIL;
+        private int tail = NIL;
+        /** Unused slots are chained through {@code next} */
+        private int free;
+        private volatile int size;
+        private volatile long version;
+
+        Segment(int capacity, LongAdder evictions) {
+            this.evictions = evictions;
+            this.index = new LongIntHashMap(capacity);
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.prev = new int[capacity];
+            this.next = new int[capacity];
+            reset();
+        }
+
+        @SuppressWarnings("unchecked")
+        V get(long key) {
+            lock.lock();
+            try {
+                int slot = index.get(key);
+                if (slot == LongIntHashMap.MISSING) {
+                    return null;
+                }
+                moveToHead(slot);
+                return (V) values[slot];
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean put(long key, V value, long expectedVersion) {
+            lock.lock();
+            try {
+                if (version != expectedVersion) {
+                    return false;
+                }
+                int slot = index.get(key);
+                if (slot != LongIntHashMap.MISSING) {
+                    values[slot] = value;
+                    moveToHead(slot);
+                    return true;
+                }
+                if (free != NIL) {
+                    slot = free;
+                    free = next[slot];
+                    size++;
+                } else {
+                    slot = tail;
+                    unlink(slot);
+                    index.remove(keys[slot]);
+                    evictions.increment();
+                }
+                keys[slot] = key;
+                values[slot] = value;
+                index.put(key, slot);
+                linkAtHead(slot);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(long key) {
+            lock.lock();
+            try {
+                version++;
+                int slot = index.remove(key);
+                if (slot == LongIntHashMap.MISSING) {
+                    return;
+                }
+                unlink(slot);
+                values[slot] = null;
+                next[slot] = free;
+                free = slot;
+                size--;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                version++;
+                index.clear();
+                Arrays.fill(values, null);
+                reset();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void reset() {
+            for (int i = 0; i < next.length; i++) {
+                next[i] = i + 1 < next.length ? i + 1 : NIL;
+            }
+            free = 0;
+            head = NIL;
+            tail = NIL;
+            size = 0;
+        }
+
+        private void moveToHead(int slot) {
+            if (slot != head) {
+                unlink(slot);
+                linkAtHead(slot);
+            }
+        }
+
+        private void linkAtHead(int slot) {
+            prev[slot] = NIL;
+            next[slot] = head;
+            if (head != NIL) {
+                prev[head] = slot;
+            }
+            head = slot;
+            if (tail == NIL) {
+                tail = slot;
+            }
+        }
+
+        private void unlink(int slot) {
+            int before = prev[slot];
+            int after = next[slot];
+            if (before != NIL) {
+                next[before] = after;
+            } else {
+                head = after;
+            }
+            if (after != NIL) {
+                prev[after] = before;
+            } else {
+                tail = before;
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.quote.web;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets, each held in a single {@link AtomicLong} and updated with one CAS.
+ * A bucket stores the time at which it will be full again (the generic cell rate algorithm): spending
+ * {@code n} tokens pushes that time {@code n} refill intervals further out, and a request is refused if
+ * it would push it more than {@code capacity} intervals past now. Nothing is refilled on a timer.
+ *
+ * <p>A bucket that is full again carries no state, so {@link #evictIdle()} can forget it without
+ * changing any client's budget. Once {@code maxClients} are tracked, new clients share a single
+ * bucket until idle ones have been evicted.
+ */
+final class ClientRateLimiter {
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflow;
+    private final int capacity;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxClients;
+    private final LongSupplier clock;
+
+    ClientRateLimiter(int capacity, int refillPerSecond, int maxClients, LongSupplier clock) {
+        this.capacity = capacity;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / refillPerSecond;
+        this.burstNanos = capacity * intervalNanos;
+        this.maxClients = maxClients;
+        this.clock = clock;
+        this.overflow = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Spend {@code cost} tokens of {@code client}'s bucket; costs above the capacity are charged as a full bucket
+     *
+     * @return {@code 0} if the tokens were spent, otherwise how many nanoseconds to wait before retrying
+     */
+    long tryAcquire(String client, int cost) {
+        long now = clock.getAsLong();
+        AtomicLong bucket = bucket(client, now);
+        long charge = Math.min(cost, capacity) * intervalNanos;
+        while (true) {
+            long fullAt = bucket.get();
+            long next = (fullAt - now > 0 ? fullAt : now) + charge;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Forget clients whose bucket has refilled completely
+     */
+    void evictIdle() {
+        long now = clock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    int clientCount() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(String client, long now) {
+        AtomicLong bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            return overflow;
+        }
+        return buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+    }
+}
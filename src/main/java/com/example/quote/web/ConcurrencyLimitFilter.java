@@ -0,0 +1,104 @@
+package com.example.quote.web;
+
+import com.example.quote.config.QuoteProperties;
+import com.example.quote.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of API requests in flight with a fair semaphore.
+ * With virtual threads every request gets its own thread, so without this bound a burst turns
+ * into thousands of threads queueing inside the connection pool until they time out.
+ * Requests that cannot get a slot within the acquire timeout fail fast with 503 and Retry-After.
+ * A request that goes async, such as an export, keeps its slot until the async processing completes.
+ */
+@Component
+@ConditionalOnProperty(prefix = "quote.concurrency", name = "enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final Set<String> exemptPaths;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(QuoteProperties quoteProperties, ObjectMapper objectMapper, MeterRegistry registry) {
+        QuoteProperties.Concurrency properties = quoteProperties.getConcurrency();
+        this.permits = new Semaphore(properties.getMaxInFlight(), true);
+        this.acquireTimeoutNanos = properties.getAcquireTimeout().toNanos();
+        this.exemptPaths = Set.copyOf(properties.getExemptPaths());
+        this.objectMapper = objectMapper;
+        this.rejected = Counter.builder("quote.concurrency.rejected")
+                .description("API requests rejected because no concurrency slot became free in time")
+                .register(registry);
+        Gauge.builder("quote.concurrency.in.flight", permits, p -> properties.getMaxInFlight() - p.availablePermits())
+                .description("API requests currently holding a concurrency slot")
+                .register(registry);
+        log.info("Limiting API requests to {} in flight", properties.getMaxInFlight());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/api/") || exemptPaths.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            reject(response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Streaming responses hold their slot until the async work is done
+            RequestCompletion.whenDone(request, permits::release);
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message("Too many concurrent requests, retry shortly")
+                .build();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
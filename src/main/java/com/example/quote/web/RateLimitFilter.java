@@ -0,0 +1,174 @@
+package com.example.quote.web;
+
+import com.example.quote.config.QuoteProperties;
+import com.example.quote.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throttles API requests per client with token buckets and sheds expensive requests under overload.
+ * Each request spends tokens according to its cost class, so one client polling the full quote list
+ * runs out long before it can crowd out everyone else; it gets 429 with Retry-After.
+ * While too many requests are in flight or threads queue for a database connection, full-table reads
+ * and bulk writes are refused with 503 so that cheap reads keep flowing. Clients are told apart by
+ * remote address; behind a proxy, set {@code server.forward-headers-strategy}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "quote.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String QUOTES = "/api/v1/quotes";
+    private static final Set<String> BULK_PATHS = Set.of(QUOTES + "/bulk", QUOTES + "/bulk-update", QUOTES + "/bulk-delete");
+    /** Subscriptions stay open for as long as the client listens, so they would never leave the in-flight count */
+    private static final Set<String> LONG_LIVED_PATHS = Set.of(QUOTES + "/stream");
+
+    private final QuoteProperties.RateLimit properties;
+    private final ClientRateLimiter limiter;
+    private final Set<String> exemptPaths;
+    private final HikariDataSource pool;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter throttled;
+    private final Counter shed;
+
+    public RateLimitFilter(QuoteProperties quoteProperties, DataSource dataSource, ObjectMapper objectMapper,
+                           MeterRegistry registry) {
+        this.properties = quoteProperties.getRateLimit();
+        this.limiter = new ClientRateLimiter(properties.getCapacity(), properties.getRefillPerSecond(),
+                properties.getMaxClients(), System::nanoTime);
+        this.exemptPaths = Set.copyOf(properties.getExemptPaths());
+        this.pool = dataSource instanceof HikariDataSource hikari ? hikari : null;
+        this.objectMapper = objectMapper;
+        this.throttled = Counter.builder("quote.ratelimit.rejected")
+                .tag("reason", "client")
+                .description("API requests rejected because the client ran out of tokens")
+                .register(registry);
+        this.shed = Counter.builder("quote.ratelimit.rejected")
+                .tag("reason", "overload")
+                .description("Expensive API requests shed while the service was overloaded")
+                .register(registry);
+        Gauge.builder("quote.ratelimit.clients", limiter, ClientRateLimiter::clientCount)
+                .description("Clients with a partly spent token bucket")
+                .register(registry);
+        log.info("Limiting API requests to {} tokens per client, refilled at {}/s",
+                properties.getCapacity(), properties.getRefillPerSecond());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = path(request);
+        return !path.startsWith("/api/") || exemptPaths.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int cost = cost(request, path(request));
+        if (cost > 1 && overloaded()) {
+            shed.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Service is busy, retry shortly");
+            return;
+        }
+        long waitNanos = limiter.tryAcquire(request.getRemoteAddr(), cost);
+        if (waitNanos > 0) {
+            throttled.increment();
+            long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfter, "Rate limit exceeded, retry later");
+            return;
+        }
+        if (LONG_LIVED_PATHS.contains(path(request))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        inFlight.incrementAndGet();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Streaming responses count as in flight until the async work is done
+            RequestCompletion.whenDone(request, inFlight::decrementAndGet);
+        }
+    }
+
+    /**
+     * Forget clients that have not spent tokens for long enough to be back at a full bucket
+     */
+    @Scheduled(fixedDelayString = "${quote.rate-limit.sweep-interval:PT1M}")
+    public void evictIdleClients() {
+        limiter.evictIdle();
+    }
+
+    /**
+     * Tokens a request spends: bulk writes and full-table reads are weighted, everything else costs one
+     */
+    private int cost(HttpServletRequest request, String path) {
+        String method = request.getMethod();
+        if ("POST".equals(method) && BULK_PATHS.contains(path)) {
+            return properties.getBulkCost();
+        }
+        if ("GET".equals(method)) {
+            if ((QUOTES + "/export").equals(path)) {
+                return properties.getFullScanCost();
+            }
+            boolean unpagedList = QUOTES.equals(path) && request.getParameter("after") == null
+                    && request.getParameter("limit") == null && request.getParameter("ids") == null;
+            if (unpagedList) {
+                return properties.getFullScanCost();
+            }
+        }
+        return 1;
+    }
+
+    private boolean overloaded() {
+        if (inFlight.get() >= properties.getShedInFlight()) {
+            return true;
+        }
+        // The pool starts on first use, after this filter is created
+        HikariPoolMXBean stats = pool != null ? pool.getHikariPoolMXBean() : null;
+        return stats != null && stats.getThreadsAwaitingConnection() >= properties.getShedPendingConnections();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .build();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
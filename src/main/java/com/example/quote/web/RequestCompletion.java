@@ -0,0 +1,68 @@
+package com.example.quote.web;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs an action once a request has really finished. A request that started async processing (a streaming
+ * body, an NDJSON export, an event stream) keeps working after its first dispatch returns, so the action
+ * then waits for the async context to complete, fail or time out.
+ */
+final class RequestCompletion {
+
+    private RequestCompletion() {
+    }
+
+    /**
+     * Call from the first dispatch once the filter chain has returned; {@code action} runs exactly once
+     */
+    static void whenDone(HttpServletRequest request, Runnable action) {
+        if (!request.isAsyncStarted()) {
+            action.run();
+            return;
+        }
+        request.getAsyncContext().addListener(new Listener(action));
+    }
+
+    private static final class Listener implements AsyncListener {
+
+        private final Runnable action;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        Listener(Runnable action) {
+            this.action = action;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finish();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            finish();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            finish();
+        }
+
+        /**
+         * Listeners are dropped when async processing is restarted, so stay registered for the new round
+         */
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void finish() {
+            if (done.compareAndSet(false, true)) {
+                action.run();
+            }
+        }
+    }
+}
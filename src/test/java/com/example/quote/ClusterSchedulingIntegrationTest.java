@@ -0,0 +1,136 @@
+package com.example.quote;
+
+import com.example.quote.event.DailyQuoteRotatedEvent;
+import com.example.quote.index.DailyQuotePicker;
+import com.example.quote.model.JobLease;
+import com.example.quote.repository.JobLeaseRepository;
+import com.example.quote.scheduling.DailyQuoteScheduler;
+import com.example.quote.scheduling.LeasedJobRunner;
+import com.example.quote.service.QuoteService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two application instances sharing one file-backed H2 database, as two replicas would
+ */
+class ClusterSchedulingIntegrationTest {
+
+    @TempDir
+    static Path databaseDir;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = start("node-a");
+        nodeB = start("node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void shouldRunEachJobOnceAcrossNodes() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertTrue(runner(nodeA).runOnce("test-once", "2024-02-09", runs::incrementAndGet));
+        assertFalse(runner(nodeB).runOnce("test-once", "2024-02-09", runs::incrementAndGet));
+        assertFalse(runner(nodeA).runOnce("test-once", "2024-02-09", runs::incrementAndGet));
+        assertTrue(runner(nodeB).runOnce("test-once", "2024-02-10", runs::incrementAndGet));
+
+        assertEquals(2, runs.get());
+        assertEquals(2, runner(nodeA).version("test-once"));
+    }
+
+    @Test
+    void shouldFailOverWhenLeaseHolderDiesMidRun() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        runner(nodeA).runOnce("test-failover", "warm-up", runs::incrementAndGet);
+
+        // node-a takes the lease for the next run and then never completes it
+        Instant now = Instant.now();
+        assertEquals(1, nodeA.getBean(JobLeaseRepository.class)
+                .acquire("test-failover", "node-a", "run-1", now, now.plusMillis(500)));
+        assertFalse(runner(nodeB).runOnce("test-failover", "run-1", runs::incrementAndGet));
+
+        Thread.sleep(700);
+        assertTrue(runner(nodeB).runOnce("test-failover", "run-1", runs::incrementAndGet));
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void shouldRotateDailyQuoteOnOneNodeAndLetOthersCatchUp() {
+        List<DailyQuoteRotatedEvent> rotations = new CopyOnWriteArrayList<>();
+        nodeB.addApplicationListener((ApplicationListener<PayloadApplicationEvent<?>>) event -> {
+            if (event.getPayload() instanceof DailyQuoteRotatedEvent rotation) {
+                rotations.add(rotation);
+            }
+        });
+        JobLeaseRepository leases = nodeA.getBean(JobLeaseRepository.class);
+        if (!leases.existsById("daily-quote")) {
+            leases.saveAndFlush(JobLease.builder().name("daily-quote").build());
+        }
+        DailyQuotePicker picker = nodeA.getBean(DailyQuotePicker.class);
+        String today = picker.today(picker.defaultZone()).toString();
+
+        // node-b first polls while node-a holds the lease for today's rotation, so it only records the version
+        Instant now = Instant.now();
+        assertEquals(1, leases.acquire("daily-quote", "node-a", today, now, now.plusSeconds(60)));
+        nodeB.getBean(DailyQuoteScheduler.class).poll();
+        assertEquals(0, runner(nodeB).version("daily-quote"));
+        nodeB.getBean(QuoteService.class).getEncodedQuote(1L);
+        assertTrue(byIdCacheSize(nodeB) > 0);
+
+        nodeA.getBean(DailyQuoteScheduler.class).poll();
+        assertEquals(1, runner(nodeA).version("daily-quote"));
+        assertTrue(rotations.isEmpty());
+
+        nodeB.getBean(DailyQuoteScheduler.class).poll();
+        assertEquals(1, rotations.size());
+        assertEquals(today, rotations.get(0).date().toString());
+        assertEquals(nodeA.getBean(DailyQuotePicker.class).currentId(), rotations.get(0).quoteId());
+        assertEquals(0, byIdCacheSize(nodeB));
+        assertEquals(nodeA.getBean(DailyQuotePicker.class).currentId(),
+                nodeB.getBean(DailyQuotePicker.class).currentId());
+
+        // Nothing new happened, so the next poll stays quiet
+        nodeB.getBean(DailyQuoteScheduler.class).poll();
+        assertEquals(1, rotations.size());
+    }
+
+    private static double byIdCacheSize(ConfigurableApplicationContext node) {
+        return node.getBean(MeterRegistry.class).get("quote.cache.size").tag("cache", "byId").gauge().value();
+    }
+
+    private static LeasedJobRunner runner(ConfigurableApplicationContext node) {
+        return node.getBean(LeasedJobRunner.class);
+    }
+
+    private static ConfigurableApplicationContext start(String nodeId) {
+        return new SpringApplicationBuilder(DailyQuoteServiceApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:file:" + databaseDir.resolve("quotedb").toAbsolutePath(),
+                "--server.port=0",
+                "--spring.jmx.enabled=false",
+                "--quote.scheduler.node-id=" + nodeId,
+                "--quote.scheduler.poll-interval=PT1H");
+    }
+}
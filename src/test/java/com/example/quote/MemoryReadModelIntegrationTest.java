@@ -0,0 +1,84 @@
+package com.example.quote;
+
+import com.example.quote.dto.QuoteRequest;
+import com.example.quote.service.MemoryQuoteReadModel;
+import com.example.quote.service.QuoteReadModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "quote.read-model=memory")
+@AutoConfigureMockMvc
+class MemoryReadModelIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private QuoteReadModel quoteReadModel;
+
+    @Test
+    @WithMockUser
+    void shouldServeReadsFromMemoryAndApplyWrites() throws Exception {
+        assertInstanceOf(MemoryQuoteReadModel.class, quoteReadModel);
+
+        QuoteRequest request = new QuoteRequest();
+        request.setText("Reads come from memory while writes still reach the database.");
+        request.setAuthor("Memory Author");
+        String created = mockMvc.perform(post("/api/v1/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(get("/api/v1/quotes/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.author").value("Memory Author"));
+        mockMvc.perform(get("/api/v1/quotes/author/memory AUTHOR"))
+                .andExpect(jsonPath("$.length()").value(1));
+
+        request.setAuthor("Edited Memory Author");
+        mockMvc.perform(put("/api/v1/quotes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/quotes/" + id))
+                .andExpect(jsonPath("$.author").value("Edited Memory Author"));
+        mockMvc.perform(get("/api/v1/quotes/author/Memory Author"))
+                .andExpect(jsonPath("$.length()").value(0));
+
+        mockMvc.perform(delete("/api/v1/quotes/" + id))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/v1/quotes/" + id))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldPageAndFlagDailyQuoteFromMemory() throws Exception {
+        mockMvc.perform(get("/api/v1/quotes").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().exists("X-Next-Cursor"));
+
+        String daily = mockMvc.perform(get("/api/v1/quotes/daily"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long dailyId = objectMapper.readTree(daily).get("id").asLong();
+        mockMvc.perform(get("/api/v1/quotes/" + dailyId))
+                .andExpect(jsonPath("$.isDailyQuote").value(true));
+    }
+}
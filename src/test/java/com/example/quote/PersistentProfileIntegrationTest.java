@@ -0,0 +1,49 @@
+package com.example.quote;
+
+import com.example.quote.repository.QuoteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentProfileIntegrationTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void shouldKeepDataAcrossRestartsAndWarmStartFromSnapshot() {
+        long count;
+        try (ConfigurableApplicationContext first = start()) {
+            assertEquals(1, catalogLoads(first, "database"));
+            count = first.getBean(QuoteRepository.class).count();
+        }
+        assertTrue(Files.exists(dataDir.resolve("catalog.snapshot")));
+
+        try (ConfigurableApplicationContext second = start()) {
+            assertEquals(1, catalogLoads(second, "snapshot"));
+            assertEquals(0, catalogLoads(second, "database"));
+            assertEquals(count, second.getBean(QuoteRepository.class).count());
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(DailyQuoteServiceApplication.class).run(
+                "--spring.profiles.active=persistent",
+                "--quote.data-dir=" + dataDir.toAbsolutePath(),
+                "--server.port=0",
+                "--spring.jmx.enabled=false");
+    }
+
+    private static long catalogLoads(ConfigurableApplicationContext context, String source) {
+        Timer timer = context.getBean(MeterRegistry.class).find("quote.catalog.load").tag("source", source).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
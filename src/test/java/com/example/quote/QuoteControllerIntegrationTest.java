@@ -1,22 +1,46 @@
 package com.example.quote;
 
 import com.example.quote.dto.QuoteRequest;
+import com.example.quote.index.QuoteSampler;
+import com.example.quote.model.Quote;
+import com.example.quote.popularity.QuotePopularity;
 import com.example.quote.repository.QuoteRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+// Every request here comes from one client address; throttling itself is covered by RateLimitFilterTest
+@SpringBootTest(properties = "quote.rate-limit.capacity=100000")
 @AutoConfigureMockMvc
+@AutoConfigureObservability
 class QuoteControllerIntegrationTest {
 
     @Autowired
@@ -28,6 +52,12 @@ class QuoteControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private QuotePopularity quotePopularity;
+
+    @Autowired
+    private QuoteSampler quoteSampler;
+
     @BeforeEach
     void setUp() {
         // Tests will use the initialized data from DataInitializer
@@ -41,6 +71,150 @@ class QuoteControllerIntegrationTest {
                 .andExpect(jsonPath("$").isArray());
     }
 
+    @Test
+    @WithMockUser
+    void shouldReturnOnlyRequestedFields() throws Exception {
+        QuoteRequest request = new QuoteRequest();
+        request.setText("Send only what the dashboard shows.");
+        request.setAuthor("Projection Author");
+        mockMvc.perform(post("/api/v1/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/quotes/author/Projection Author").param("fields", "text, id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").isNumber())
+                .andExpect(jsonPath("$[0].text").value("Send only what the dashboard shows."))
+                .andExpect(jsonPath("$[0].author").doesNotExist())
+                .andExpect(jsonPath("$[0].createdAt").doesNotExist());
+        mockMvc.perform(get("/api/v1/quotes").param("limit", "2").param("fields", "createdAt,isDailyQuote"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].createdAt").isString())
+                .andExpect(jsonPath("$[0].isDailyQuote").isBoolean())
+                .andExpect(jsonPath("$[0].id").doesNotExist());
+        String full = mockMvc.perform(get("/api/v1/quotes/author/Projection Author"))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/v1/quotes/author/Projection Author")
+                        .param("fields", "version,isDailyQuote,createdAt,author,text,id"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(full));
+        mockMvc.perform(get("/api/v1/quotes").param("fields", "id,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("password")));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldPageQuotesByCursor() throws Exception {
+        MvcResult firstPage = mockMvc.perform(get("/api/v1/quotes").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(header().exists("Link"))
+                .andReturn();
+        long cursor = Long.parseLong(firstPage.getResponse().getHeader("X-Next-Cursor"));
+
+        mockMvc.perform(get("/api/v1/quotes").param("after", String.valueOf(cursor)).param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(greaterThan((int) cursor)));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldStreamQuotesAsNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/quotes").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(quoteRepository.count(), lines.length);
+        assertTrue(body.endsWith("\n"));
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("id").asLong());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldBulkImportNdjsonAndReportRowErrors() throws Exception {
+        String body = """
+                {"text": "Bulk imported quotes skip the per-request overhead.", "author": "Bulk Author"}
+                {"text": "short", "author": "Bulk Author"}
+
+                not json
+                null
+                {"text": "A second bulk imported quote for the same author.", "author": "Bulk Author"}
+                """;
+
+        mockMvc.perform(post("/api/v1/quotes/bulk")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(5))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[1].row").value(4))
+                .andExpect(jsonPath("$.errors[2].row").value(5));
+
+        mockMvc.perform(get("/api/v1/quotes/author/bulk author"))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldBulkImportCsvWithQuotedFields() throws Exception {
+        String body = "author,text\r\n"
+                + "CSV Author,\"Commas, \"\"quotes\"\" and\nnew lines survive the import.\"\r\n";
+
+        mockMvc.perform(post("/api/v1/quotes/bulk")
+                        .contentType("text/csv")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+
+        mockMvc.perform(get("/api/v1/quotes/author/CSV Author"))
+                .andExpect(jsonPath("$[0].text").value("Commas, \"quotes\" and\nnew lines survive the import."));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldReportUnterminatedCsvFieldAsRowError() throws Exception {
+        String body = "text,author\r\n"
+                + "Rows before a malformed record are still imported.,Truncated CSV Author\r\n"
+                + "\"This quoted field never ends,Truncated CSV Author\r\n";
+
+        mockMvc.perform(post("/api/v1/quotes/bulk")
+                        .contentType("text/csv")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value(containsString("Unterminated")));
+
+        mockMvc.perform(post("/api/v1/quotes/bulk")
+                        .contentType("text/csv")
+                        .content("\"text,author\r\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldExportCatalogAsCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/quotes/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"quotes.csv\""))
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(body.startsWith("id,text,author,createdAt,isDailyQuote\r\n"));
+    }
+
     @Test
     @WithMockUser
     void shouldGetQuoteById() throws Exception {
@@ -49,6 +223,185 @@ class QuoteControllerIntegrationTest {
                 .andExpect(jsonPath("$.id").value(1));
     }
 
+    @Test
+    @WithMockUser
+    void shouldBatchGetQuotesInRequestOrderAndReportMissing() throws Exception {
+        long first = quoteRepository.save(Quote.builder().text("First quote of a batch fetch.").author("Batch").build()).getId();
+        long second = quoteRepository.save(Quote.builder().text("Second quote of a batch fetch.").author("Batch").build()).getId();
+        long third = quoteRepository.save(Quote.builder().text("Third quote of a batch fetch.").author("Batch").build()).getId();
+        mockMvc.perform(get("/api/v1/quotes/" + second));
+
+        mockMvc.perform(get("/api/v1/quotes").param("ids", third + ",999999," + first + "," + second + "," + third))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.quotes.length()").value(3))
+                .andExpect(jsonPath("$.quotes[0].id").value(third))
+                .andExpect(jsonPath("$.quotes[1].id").value(first))
+                .andExpect(jsonPath("$.quotes[2].id").value(second))
+                .andExpect(jsonPath("$.missing[0]").value(999999));
+
+        mockMvc.perform(post("/api/v1/quotes/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + second + "," + first + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quotes[0].id").value(second))
+                .andExpect(jsonPath("$.quotes[1].id").value(first))
+                .andExpect(jsonPath("$.missing").isEmpty());
+
+        mockMvc.perform(get("/api/v1/quotes").param("ids", first + ",abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("'ids'")));
+        mockMvc.perform(get("/api/v1/quotes/random").param("count", "many"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/quotes/random").param("maxLength", "1e3"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/quotes/random").param("exclude", "1,two"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/quotes/not-a-number"))
+                .andExpect(status().isBadRequest());
+
+        String tooMany = "{\"ids\":[" + "1,".repeat(200) + "1]}";
+        mockMvc.perform(post("/api/v1/quotes/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(tooMany))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldListMergedSpellingAfterCaseOnlyReassignment() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            QuoteRequest request = new QuoteRequest("Lower-case author spelling number " + i + ".", "einstein");
+            mockMvc.perform(post("/api/v1/quotes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+        mockMvc.perform(get("/api/v1/quotes/authors").param("prefix", "einstein"))
+                .andExpect(jsonPath("$[0]").value("einstein"));
+
+        mockMvc.perform(post("/api/v1/quotes/bulk-update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"author\":\"einstein\",\"newAuthor\":\"Einstein\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+
+        mockMvc.perform(get("/api/v1/quotes/authors").param("prefix", "einstein"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0]").value("Einstein"));
+        mockMvc.perform(get("/api/v1/quotes/authors/counts").param("prefix", "einstein"))
+                .andExpect(jsonPath("$[0].author").value("Einstein"))
+                .andExpect(jsonPath("$[0].quoteCount").value(2));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldBulkUpdateAndDeleteQuotesSetWise() throws Exception {
+        long[] ids = new long[3];
+        for (int i = 0; i < ids.length; i++) {
+            QuoteRequest request = new QuoteRequest("Moderation candidate number " + i + ".", "Misspelled Autor");
+            String created = mockMvc.perform(post("/api/v1/quotes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andReturn().getResponse().getContentAsString();
+            ids[i] = objectMapper.readTree(created).get("id").asLong();
+            mockMvc.perform(get("/api/v1/quotes/" + ids[i]));
+        }
+
+        mockMvc.perform(post("/api/v1/quotes/bulk-update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"author\":\"misspelled autor\",\"newAuthor\":\"Corrected Author\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(3));
+        mockMvc.perform(get("/api/v1/quotes/" + ids[0]))
+                .andExpect(jsonPath("$.author").value("Corrected Author"));
+        mockMvc.perform(get("/api/v1/quotes/authors").param("prefix", "Misspelled"))
+                .andExpect(jsonPath("$").isEmpty());
+
+        mockMvc.perform(post("/api/v1/quotes/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + ids[0] + "," + ids[1] + ",999999]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+        mockMvc.perform(get("/api/v1/quotes/" + ids[1]))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/quotes/author/Corrected Author"))
+                .andExpect(jsonPath("$.length()").value(1));
+
+        mockMvc.perform(post("/api/v1/quotes/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + ids[2] + "],\"author\":\"Corrected Author\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldInvalidateCachedQuoteOnUpdateAndDelete() throws Exception {
+        QuoteRequest request = new QuoteRequest();
+        request.setText("A quote that is read, cached, edited and then removed.");
+        request.setAuthor("Cache Author");
+        String created = mockMvc.perform(post("/api/v1/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(get("/api/v1/quotes/" + id))
+                .andExpect(jsonPath("$.author").value("Cache Author"));
+
+        request.setAuthor("Edited Cache Author");
+        mockMvc.perform(put("/api/v1/quotes/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/quotes/" + id))
+                .andExpect(jsonPath("$.author").value("Edited Cache Author"));
+
+        mockMvc.perform(delete("/api/v1/quotes/" + id))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/v1/quotes/" + id))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldServePrecomputedGzipBodyWhenAccepted() throws Exception {
+        QuoteRequest request = new QuoteRequest();
+        request.setText("A long quote, long enough that its pre-serialized body also keeps a gzip copy. ".repeat(5));
+        request.setAuthor("Gzip Author");
+        String created = mockMvc.perform(post("/api/v1/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        byte[] plain = mockMvc.perform(get("/api/v1/quotes/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.author").value("Gzip Author"))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] compressed = mockMvc.perform(get("/api/v1/quotes/" + id).header(HttpHeaders.ACCEPT_ENCODING, "br, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertTrue(compressed.length < plain.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(plain, in.readAllBytes());
+        }
+
+        for (String refusal : new String[]{"*, gzip;q=0", "gzip;q=0.000, br", "identity, *;q=0", "gzip; q=abc"}) {
+            mockMvc.perform(get("/api/v1/quotes/" + id).header(HttpHeaders.ACCEPT_ENCODING, refusal))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        }
+        mockMvc.perform(get("/api/v1/quotes/" + id).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0.5, *;q=0"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
     @Test
     @WithMockUser
     void shouldCreateQuote() throws Exception {
@@ -72,6 +425,86 @@ class QuoteControllerIntegrationTest {
                 .andExpect(jsonPath("$.isDailyQuote").value(true));
     }
 
+    @Test
+    @WithMockUser
+    void shouldServeDailyQuotePerTimeZone() throws Exception {
+        // Always at least one calendar day apart, so each zone may see a different quote
+        for (String zone : new String[]{"Pacific/Kiritimati", "Etc/GMT+12", "UTC"}) {
+            mockMvc.perform(get("/api/v1/quotes/daily").param("tz", zone))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.isDailyQuote").value(true))
+                    .andExpect(header().exists("ETag"));
+        }
+
+        String defaultZone = mockMvc.perform(get("/api/v1/quotes/daily"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/v1/quotes/daily").param("tz", "UTC"))
+                .andExpect(header().string("ETag", defaultZone));
+
+        mockMvc.perform(get("/api/v1/quotes/daily").param("tz", "Mars/Olympus_Mons"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldRevalidateDailyQuoteWithETag() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/quotes/daily"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "max-age=60, public"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/quotes/daily").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldNotAnswerIfModifiedSinceWithStaleDailyQuoteAfterEdit() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/v1/quotes/daily"))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode daily = objectMapper.readTree(first.getResponse().getContentAsString());
+        String lastModified = first.getResponse().getHeader("Last-Modified");
+        mockMvc.perform(get("/api/v1/quotes/daily").header("If-Modified-Since", lastModified))
+                .andExpect(status().isNotModified());
+
+        // HTTP dates have one-second resolution
+        Thread.sleep(1_100);
+        QuoteRequest edit = new QuoteRequest(daily.get("text").asText() + " (edited)", daily.get("author").asText());
+        mockMvc.perform(put("/api/v1/quotes/" + daily.get("id").asLong())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(edit)))
+                .andExpect(status().isOk());
+        try {
+            mockMvc.perform(get("/api/v1/quotes/daily").header("If-Modified-Since", lastModified))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.text").value(edit.getText()));
+        } finally {
+            QuoteRequest restore = new QuoteRequest(daily.get("text").asText(), daily.get("author").asText());
+            mockMvc.perform(put("/api/v1/quotes/" + daily.get("id").asLong())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(restore)))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void shouldExposePrometheusMetrics() throws Exception {
+        mockMvc.perform(get("/api/v1/quotes/daily"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("admin", "admin123")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("quote_cache_requests_total{")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket{")));
+    }
+
     @Test
     @WithMockUser
     void shouldGetRandomQuote() throws Exception {
@@ -80,6 +513,99 @@ class QuoteControllerIntegrationTest {
                 .andExpect(jsonPath("$.id").exists());
     }
 
+    @Test
+    @WithMockUser
+    void shouldSampleDistinctRandomQuotesMatchingFilters() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            QuoteRequest request = new QuoteRequest("Sampled quote number " + i + ".", "Random Sampler");
+            mockMvc.perform(post("/api/v1/quotes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult result = mockMvc.perform(get("/api/v1/quotes/random")
+                        .param("author", "random sampler")
+                        .param("count", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].author", everyItem(is("Random Sampler"))))
+                .andReturn();
+        List<Long> ids = objectMapper.readTree(result.getResponse().getContentAsString()).findValues("id")
+                .stream().map(JsonNode::asLong).toList();
+        assertEquals(3, Set.copyOf(ids).size());
+
+        mockMvc.perform(get("/api/v1/quotes/random")
+                        .param("author", "Random Sampler")
+                        .param("exclude", ids.stream().map(String::valueOf).collect(Collectors.joining(","))))
+                .andExpect(status().isNotFound());
+        MvcResult shortQuotes = mockMvc.perform(get("/api/v1/quotes/random").param("maxLength", "60").param("count", "50"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertTrue(objectMapper.readTree(shortQuotes.getResponse().getContentAsString()).findValues("text")
+                .stream().allMatch(text -> text.asText().length() <= 60));
+        mockMvc.perform(get("/api/v1/quotes/random").param("count", "0"))
+                .andExpect(status().isBadRequest());
+
+        MvcResult weighted = mockMvc.perform(get("/api/v1/quotes/random")
+                        .param("author", "random sampler")
+                        .param("count", "10")
+                        .param("weighted", "true"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals(Set.copyOf(ids), objectMapper.readTree(weighted.getResponse().getContentAsString())
+                .findValues("id").stream().map(JsonNode::asLong).collect(Collectors.toSet()));
+
+        // Weights follow the views reported by the popularity flush; sampled directly so no views are added
+        for (int i = 0; i < 20; i++) {
+            quotePopularity.record(ids.get(0));
+        }
+        quotePopularity.flush();
+        int popularPicks = 0;
+        for (int i = 0; i < 50; i++) {
+            popularPicks += quoteSampler.weightedSample("Random Sampler", Integer.MAX_VALUE, Set.of(), 1)[0] == ids.get(0) ? 1 : 0;
+        }
+        assertTrue(popularPicks >= 30, "picked the viewed quote only " + popularPicks + " times");
+    }
+
+    @Test
+    @WithMockUser
+    void shouldRankMostViewedQuotesAfterFlush() throws Exception {
+        long[] ids = new long[2];
+        for (int i = 0; i < ids.length; i++) {
+            QuoteRequest request = new QuoteRequest("A quote that draws a crowd, take " + i + ".", "Popular Author");
+            String created = mockMvc.perform(post("/api/v1/quotes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andReturn().getResponse().getContentAsString();
+            ids[i] = objectMapper.readTree(created).get("id").asLong();
+        }
+        for (int i = 0; i < 40; i++) {
+            mockMvc.perform(get("/api/v1/quotes/" + ids[0])).andExpect(status().isOk());
+        }
+        for (int i = 0; i < 30; i++) {
+            mockMvc.perform(get("/api/v1/quotes/" + ids[1])).andExpect(status().isOk());
+        }
+        quotePopularity.flush();
+
+        for (String window : new String[]{"1h", "all"}) {
+            mockMvc.perform(get("/api/v1/quotes/top").param("window", window).param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(jsonPath("$[0].quote.id").value(ids[0]))
+                    .andExpect(jsonPath("$[0].views").value(40))
+                    .andExpect(jsonPath("$[1].quote.id").value(ids[1]))
+                    .andExpect(jsonPath("$[1].views").value(30));
+        }
+        mockMvc.perform(get("/api/v1/quotes/top").param("window", "2h"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(delete("/api/v1/quotes/" + ids[0]))
+                .andExpect(status().isNoContent());
+        quotePopularity.flush();
+        mockMvc.perform(get("/api/v1/quotes/top").param("window", "24h").param("limit", "1"))
+                .andExpect(jsonPath("$[0].quote.id").value(ids[1]));
+    }
+
     @Test
     @WithMockUser
     void shouldReturnNotFoundForInvalidId() throws Exception {
@@ -115,6 +641,88 @@ class QuoteControllerIntegrationTest {
                 .andExpect(jsonPath("$.author").value("Updated Author"));
     }
     
+    @Test
+    @WithMockUser
+    void shouldRejectUpdatesBasedOnStaleVersion() throws Exception {
+        QuoteRequest request = new QuoteRequest("A quote edited by two people at once.", "Versioned Author");
+        String created = mockMvc.perform(post("/api/v1/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        String etag = mockMvc.perform(get("/api/v1/quotes/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/v1/quotes/" + id).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        request.setText("The first editor's version of the quote.");
+        String newEtag = mockMvc.perform(put("/api/v1/quotes/" + id)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1))
+                .andReturn().getResponse().getHeader("ETag");
+
+        request.setText("The second editor's version of the quote.");
+        mockMvc.perform(put("/api/v1/quotes/" + id)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/v1/quotes/" + id).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", newEtag))
+                .andExpect(jsonPath("$.text").value("The first editor's version of the quote."));
+
+        // A list matches if any strong tag names the current version; weak tags never do
+        request.setText("An editor holding several representations.");
+        mockMvc.perform(put("/api/v1/quotes/" + id)
+                        .header("If-Match", "\"v0\", \"v0-gzip\", W/\"v1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/v1/quotes/" + id)
+                        .header("If-Match", "\"v0\", \"v1-gzip\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(2));
+        mockMvc.perform(put("/api/v1/quotes/" + id)
+                        .header("If-Match", "\"not-ours\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldTagDailyQuoteBodiesApartFromOtherBodiesOfTheSameVersion() throws Exception {
+        long dailyId = objectMapper.readTree(mockMvc.perform(get("/api/v1/quotes/daily"))
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+
+        String body = mockMvc.perform(get("/api/v1/quotes/" + dailyId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isDailyQuote").value(true))
+                .andReturn().getResponse().getContentAsString();
+        long version = objectMapper.readTree(body).get("version").asLong();
+        String etag = "\"v" + version + "-daily\"";
+        mockMvc.perform(get("/api/v1/quotes/" + dailyId))
+                .andExpect(header().string("ETag", etag));
+
+        // A copy cached before this quote became the daily pick carries isDailyQuote=false
+        mockMvc.perform(get("/api/v1/quotes/" + dailyId).header("If-None-Match", "\"v" + version + "\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag));
+        mockMvc.perform(get("/api/v1/quotes/" + dailyId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     @WithMockUser
     void shouldDeleteQuote() throws Exception {
@@ -130,6 +738,52 @@ class QuoteControllerIntegrationTest {
                 .andExpect(jsonPath("$").isArray());
     }
     
+    @Test
+    @WithMockUser
+    void shouldGetQuotesByAuthorIgnoringCase() throws Exception {
+        mockMvc.perform(get("/api/v1/quotes/author/winston CHURCHILL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].author").value("Winston Churchill"));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldCountAuthorsByPrefix() throws Exception {
+        QuoteRequest request = new QuoteRequest();
+        request.setText("Counting quotes per author should not need a table scan.");
+        request.setAuthor("Zelda Prefixson");
+        mockMvc.perform(post("/api/v1/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/quotes/authors/counts").param("prefix", "zelda pre"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].author").value("Zelda Prefixson"))
+                .andExpect(jsonPath("$[0].quoteCount").value(1));
+        mockMvc.perform(get("/api/v1/quotes/authors").param("prefix", "Zelda"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("Zelda Prefixson"));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldSearchQuoteText() throws Exception {
+        QuoteRequest request = new QuoteRequest();
+        request.setText("Searching an inverted index beats scanning every quotation.");
+        request.setAuthor("Index Author");
+        mockMvc.perform(post("/api/v1/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/quotes/search").param("q", "inverted QUOTATION"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].author").value("Index Author"));
+    }
+
     @Test
     @WithMockUser
     void shouldGetAllAuthors() throws Exception {
@@ -0,0 +1,111 @@
+package com.example.quote;
+
+import com.example.quote.dto.QuoteRequest;
+import com.example.quote.service.QuoteService;
+import com.example.quote.stream.QuoteEventStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class QuoteStreamIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private QuoteService quoteService;
+
+    @Autowired
+    private QuoteEventStream quoteEventStream;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void shouldPushCommittedChangesAndResumeFromLastEventId() throws Exception {
+        long id;
+        String lastEventId;
+        try (Stream<String> lines = subscribe(null)) {
+            Iterator<String> events = lines.iterator();
+            id = quoteService.createQuote(new QuoteRequest("Streamed to every dashboard at once.", "Stream Author")).getId();
+            List<String> created = nextEvent(events, "quote.created");
+            assertTrue(created.stream().anyMatch(line -> line.startsWith("data:") && line.contains("\"id\":" + id)));
+            lastEventId = field(created, "id:");
+        }
+
+        quoteService.updateQuote(id, new QuoteRequest("Edited while the dashboard was reconnecting.", "Stream Author"), null);
+        quoteService.deleteQuote(id);
+
+        try (Stream<String> lines = subscribe(lastEventId)) {
+            Iterator<String> events = lines.iterator();
+            assertTrue(field(nextEvent(events, "quote.updated"), "data:").contains("\"id\":" + id));
+            assertEquals("{\"id\":" + id + "}", field(nextEvent(events, "quote.deleted"), "data:"));
+        }
+    }
+
+    @Test
+    void shouldAskClientsFromAnotherStreamToReload() throws Exception {
+        try (Stream<String> lines = subscribe("some-other-process-42")) {
+            assertNotNull(nextEvent(lines.iterator(), "reset"));
+        }
+    }
+
+    private Stream<String> subscribe(String lastEventId) throws Exception {
+        int before = quoteEventStream.subscriberCount();
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/quotes/stream"))
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<Stream<String>> response = client.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (quoteEventStream.subscriberCount() <= before && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return response.body();
+    }
+
+    /**
+     * Lines of the next event named {@code name}, skipping heartbeats and unrelated events such as a daily rotation
+     */
+    private static List<String> nextEvent(Iterator<String> lines, String name) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            List<String> event = new ArrayList<>();
+            while (lines.hasNext()) {
+                String line = lines.next();
+                if (line.isEmpty()) {
+                    if (event.contains("event:" + name)) {
+                        return event;
+                    }
+                    event.clear();
+                } else if (!line.startsWith(":")) {
+                    event.add(line);
+                }
+            }
+            throw new AssertionError("Stream ended before a " + name + " event");
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    private static String field(List<String> event, String prefix) {
+        return event.stream()
+                .filter(line -> line.startsWith(prefix))
+                .map(line -> line.substring(prefix.length()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No " + prefix + " in " + event));
+    }
+}
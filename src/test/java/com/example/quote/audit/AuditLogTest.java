@@ -0,0 +1,119 @@
+package com.example.quote.audit;
+
+import com.example.quote.config.QuoteProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogTest {
+
+    @Test
+    void shouldDeliverEveryWriteFromConcurrentProducers() throws Exception {
+        QuoteProperties properties = new QuoteProperties();
+        properties.getAudit().setBufferSize(64);
+        properties.getAudit().setOverflowPolicy(AuditLog.OverflowPolicy.BLOCK);
+        List<AuditEvent> written = new ArrayList<>();
+        AuditLog auditLog = new AuditLog(written::addAll, properties, new SimpleMeterRegistry());
+
+        int producers = 4;
+        int perProducer = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int offset = p * perProducer;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 1; i <= perProducer; i++) {
+                    auditLog.record("quote.created", offset + i, null);
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        auditLog.shutdown();
+
+        assertEquals(producers * perProducer, written.size());
+        Set<Long> ids = new HashSet<>();
+        written.forEach(event -> ids.add(event.quoteId()));
+        assertEquals(producers * perProducer, ids.size());
+    }
+
+    @Test
+    void shouldWakeBlockedProducersAndDropAfterTheBlockTimeout() throws Exception {
+        QuoteProperties properties = new QuoteProperties();
+        properties.getAudit().setBufferSize(4);
+        properties.getAudit().setOverflowPolicy(AuditLog.OverflowPolicy.BLOCK);
+        properties.getAudit().setBlockTimeout(Duration.ofMillis(100));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<AuditEvent> written = new CopyOnWriteArrayList<>();
+        AuditLog auditLog = new AuditLog(batch -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.addAll(batch);
+        }, properties, registry);
+
+        auditLog.record("quote.created", 1, null);
+        writing.await();
+        for (int i = 2; i <= 5; i++) {
+            auditLog.record("quote.created", i, null);
+        }
+
+        // The writer is stuck in the sink and the buffer is full, so this waits out the timeout
+        long start = System.nanoTime();
+        auditLog.record("quote.created", 6, null);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(90));
+        assertEquals(1.0, registry.get("quote.audit.dropped").counter().count());
+
+        properties.getAudit().setBlockTimeout(Duration.ofSeconds(30));
+        AuditLog patient = new AuditLog(written::addAll, properties, new SimpleMeterRegistry());
+        Thread producer = Thread.ofPlatform().start(() -> {
+            for (int i = 10; i < 1_000; i++) {
+                patient.record("quote.created", i, null);
+            }
+        });
+        producer.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(producer.isAlive());
+
+        release.countDown();
+        auditLog.shutdown();
+        patient.shutdown();
+        assertEquals(5 + 990, written.size());
+    }
+
+    @Test
+    void shouldSkipReadsWhenSamplingIsOff() throws Exception {
+        QuoteProperties properties = new QuoteProperties();
+        properties.getAudit().setReadSampleRate(0);
+        List<AuditEvent> written = new ArrayList<>();
+        AuditLog auditLog = new AuditLog(written::addAll, properties, new SimpleMeterRegistry());
+
+        auditLog.recordRead("quote.get", 1, null);
+        auditLog.record("quote.deleted", 2, "Author");
+        auditLog.shutdown();
+
+        assertEquals(1, written.size());
+        assertEquals("quote.deleted", written.get(0).action());
+    }
+}
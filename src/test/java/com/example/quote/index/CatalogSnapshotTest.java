@@ -0,0 +1,66 @@
+package com.example.quote.index;
+
+import com.example.quote.model.CatalogVersion;
+import com.example.quote.model.QuoteSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 2, 9, 12, 30, 15, 123_456_000);
+    private static final CatalogVersion VERSION = new CatalogVersion(3L, 7L, CREATED.plusDays(1));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRoundTripQuotesAndShareAuthorStrings() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        List<QuoteSnapshot> quotes = List.of(
+                new QuoteSnapshot(2, "Innovation distinguishes between a leader and a follower.", "Steve Jobs", CREATED, 0),
+                new QuoteSnapshot(5, "Ce qui ne me tue pas me rend plus fort — ça va.", "Friedrich Nietzsche", CREATED, 3),
+                new QuoteSnapshot(7, "Stay hungry, stay foolish.", "Steve Jobs", CREATED.plusSeconds(1), 1));
+        write(path, VERSION, quotes);
+
+        List<QuoteSnapshot> loaded = new ArrayList<>();
+        assertEquals(3, CatalogSnapshot.load(path, VERSION, loaded::add));
+
+        assertEquals(quotes, loaded);
+        assertSame(loaded.get(0).author(), loaded.get(2).author());
+    }
+
+    @Test
+    void shouldIgnoreMissingOrStaleSnapshotsAndRejectTruncatedOnes() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        List<QuoteSnapshot> loaded = new ArrayList<>();
+        assertEquals(-1, CatalogSnapshot.load(path, VERSION, loaded::add));
+
+        write(path, VERSION, List.of(new QuoteSnapshot(1, "The only way to do great work.", "Steve Jobs", CREATED, 0)));
+        CatalogVersion afterDelete = new CatalogVersion(2L, 7L, VERSION.lastUpdated());
+        assertEquals(-1, CatalogSnapshot.load(path, afterDelete, loaded::add));
+        assertTrue(loaded.isEmpty());
+
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IOException.class, () -> CatalogSnapshot.load(path, VERSION, loaded::add));
+    }
+
+    private static void write(Path path, CatalogVersion version, List<QuoteSnapshot> quotes) throws IOException {
+        try (CatalogSnapshot.Writer writer = CatalogSnapshot.create(path, version)) {
+            for (QuoteSnapshot quote : quotes) {
+                writer.write(quote);
+            }
+            writer.commit();
+        }
+    }
+}
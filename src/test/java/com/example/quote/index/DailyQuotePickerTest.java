@@ -0,0 +1,122 @@
+package com.example.quote.index;
+
+import com.example.quote.config.QuoteProperties;
+import com.example.quote.model.QuoteSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DailyQuotePickerTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 2, 9);
+
+    @Test
+    void shouldAgreeAcrossInstancesRegardlessOfInsertionOrder() {
+        QuoteIdIndex forward = new QuoteIdIndex();
+        QuoteIdIndex backward = new QuoteIdIndex();
+        for (long id = 1; id <= 500; id++) {
+            forward.add(quote(id));
+            backward.add(quote(501 - id));
+        }
+
+        DailyQuotePicker first = picker(forward);
+        DailyQuotePicker second = picker(backward);
+        for (int day = 0; day < 30; day++) {
+            assertEquals(first.pick(DATE.plusDays(day)), second.pick(DATE.plusDays(day)));
+        }
+        assertNotEquals(first.pick(DATE), first.pick(DATE.plusDays(1)));
+    }
+
+    @Test
+    void shouldMatchFreshComputationAfterWrites() {
+        QuoteIdIndex ids = new QuoteIdIndex();
+        DailyQuotePicker picker = picker(ids);
+        for (long id = 1; id <= 50; id++) {
+            ids.add(quote(id));
+        }
+        long picked = picker.pick(DATE);
+
+        Set<Long> live = new HashSet<>();
+        for (long id = 1; id <= 5_000; id++) {
+            if (id > 50) {
+                ids.add(quote(id));
+            }
+            live.add(id);
+        }
+        assertEquals(winner(live, DATE), picker.pick(DATE));
+
+        long current = picker.pick(DATE);
+        ids.remove(quote(current));
+        live.remove(current);
+        assertNotEquals(current, picker.pick(DATE));
+        assertEquals(winner(live, DATE), picker.pick(DATE));
+        assertTrue(picked > 0);
+    }
+
+    @Test
+    void shouldNeverKeepDeletedPickWhileReadersRace() throws Exception {
+        QuoteIdIndex ids = new QuoteIdIndex();
+        Set<Long> live = new HashSet<>();
+        for (long id = 1; id <= 2_000; id++) {
+            ids.add(quote(id));
+            live.add(id);
+        }
+        DailyQuotePicker picker = picker(ids);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                while (running.get()) {
+                    picker.pick(DATE);
+                    picker.pick(DATE.plusDays(1));
+                }
+            }));
+        }
+        try {
+            for (int round = 0; round < 300; round++) {
+                // Delete today's pick and add a new quote that may outrank the next one
+                long current = picker.pick(DATE);
+                ids.remove(quote(current));
+                live.remove(current);
+                long added = 10_000 + round;
+                ids.add(quote(added));
+                live.add(added);
+
+                assertEquals(winner(live, DATE), picker.pick(DATE));
+                assertEquals(winner(live, DATE.plusDays(1)), picker.pick(DATE.plusDays(1)));
+            }
+        } finally {
+            running.set(false);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+        }
+    }
+
+    /**
+     * Rendezvous winner computed from scratch
+     */
+    private static long winner(Set<Long> ids, LocalDate date) {
+        long seed = QuoteIdIndex.weight(0x5DEECE66DL, date.toEpochDay());
+        return ids.stream()
+                .max(Comparator.<Long>comparingLong(id -> QuoteIdIndex.weight(seed, id)).thenComparing(Comparator.reverseOrder()))
+                .orElseThrow();
+    }
+
+    private static DailyQuotePicker picker(QuoteIdIndex ids) {
+        return new DailyQuotePicker(ids, new QuoteProperties());
+    }
+
+    private static QuoteSnapshot quote(long id) {
+        return new QuoteSnapshot(id, "Quote " + id, "Author", LocalDateTime.of(2024, 1, 1, 0, 0), 0);
+    }
+}
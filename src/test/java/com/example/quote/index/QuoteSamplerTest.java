@@ -0,0 +1,171 @@
+package com.example.quote.index;
+
+import com.example.quote.model.QuoteSnapshot;
+import com.example.quote.util.LongIntHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuoteSamplerTest {
+
+    @Test
+    void shouldOnlySampleDistinctMatchingQuotesUnderRandomWrites() {
+        QuoteSampler sampler = new QuoteSampler();
+        TreeMap<Long, QuoteSnapshot> expected = new TreeMap<>();
+        Random random = new Random(11);
+
+        for (int i = 0; i < 20_000; i++) {
+            if (i % 1_000 == 0) {
+                LongIntHashMap views = new LongIntHashMap();
+                for (int j = 0; j < 300; j++) {
+                    views.put(1 + random.nextInt(2_500), 1 + random.nextInt(1_000));
+                }
+                sampler.updateWeights(views);
+            }
+            long id = 1 + random.nextInt(2_000);
+            QuoteSnapshot existing = expected.get(id);
+            if (existing != null && random.nextBoolean()) {
+                sampler.remove(existing);
+                expected.remove(id);
+            } else if (existing != null) {
+                QuoteSnapshot updated = quote(id, "Author " + random.nextInt(7), 10 + random.nextInt(600));
+                sampler.replace(existing, updated);
+                expected.put(id, updated);
+            } else {
+                QuoteSnapshot created = quote(id, "Author " + random.nextInt(7), 10 + random.nextInt(600));
+                sampler.add(created);
+                expected.put(id, created);
+            }
+        }
+
+        Set<Long> exclude = expected.keySet().stream().limit(50).collect(Collectors.toSet());
+        for (String author : new String[]{null, "author 3"}) {
+            for (int maxLength : new int[]{40, 300, 550, Integer.MAX_VALUE}) {
+                Set<Long> matching = expected.values().stream()
+                        .filter(quote -> author == null || quote.author().equals("Author 3"))
+                        .filter(quote -> quote.text().length() <= maxLength && !exclude.contains(quote.id()))
+                        .map(QuoteSnapshot::id)
+                        .collect(Collectors.toSet());
+                long[] sample = sampler.sample(author, maxLength, exclude, 25);
+                assertEquals(Math.min(25, matching.size()), sample.length);
+                assertEquals(sample.length, Arrays.stream(sample).distinct().count());
+                assertTrue(Arrays.stream(sample).allMatch(matching::contains));
+
+                long[] all = sampler.sample(author, maxLength, exclude, Integer.MAX_VALUE);
+                assertEquals(matching, Arrays.stream(all).boxed().collect(Collectors.toSet()));
+
+                long[] weighted = sampler.weightedSample(author, maxLength, exclude, 25);
+                assertEquals(Math.min(25, matching.size()), weighted.length);
+                assertEquals(weighted.length, Arrays.stream(weighted).distinct().count());
+                assertTrue(Arrays.stream(weighted).allMatch(matching::contains));
+
+                long[] allWeighted = sampler.weightedSample(author, maxLength, exclude, Integer.MAX_VALUE);
+                assertEquals(allWeighted.length, Arrays.stream(allWeighted).distinct().count());
+                assertEquals(matching, Arrays.stream(allWeighted).boxed().collect(Collectors.toSet()));
+            }
+        }
+    }
+
+    @Test
+    void shouldPickEveryMatchingQuoteEquallyOften() {
+        QuoteSampler sampler = new QuoteSampler();
+        sampler.clear();
+        for (long id = 1; id <= 20; id++) {
+            sampler.add(quote(id, "Author", (int) (10 * id)));
+        }
+        sampler.finishRebuild();
+
+        // Lengths 10..100 are allowed and ID 5 is excluded, leaving 9 candidates
+        Map<Long, Integer> counts = new HashMap<>();
+        int draws = 90_000;
+        for (int i = 0; i < draws; i++) {
+            for (long id : sampler.sample(null, 100, Set.of(5L), 2)) {
+                counts.merge(id, 1, Integer::sum);
+            }
+        }
+
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 6L, 7L, 8L, 9L, 10L), counts.keySet());
+        for (int count : counts.values()) {
+            assertEquals(2.0 * draws / 9, count, 0.05 * draws / 9);
+        }
+    }
+
+    @Test
+    void shouldPickQuotesInProportionToOnePlusTheirViews() {
+        QuoteSampler sampler = new QuoteSampler();
+        for (long id = 1; id <= 12; id++) {
+            sampler.add(quote(id, "Author", (int) (10 * id)));
+        }
+        LongIntHashMap views = new LongIntHashMap();
+        views.put(1, 9);
+        views.put(2, 4);
+        views.put(11, 50);
+        sampler.updateWeights(views);
+
+        // Lengths 10..100 are allowed and ID 3 is excluded: weights 10, 5 and seven times 1, 22 in all
+        Map<Long, Double> expected = new HashMap<>();
+        expected.put(1L, 10 / 22.0);
+        expected.put(2L, 5 / 22.0);
+        for (long id = 4; id <= 10; id++) {
+            expected.put(id, 1 / 22.0);
+        }
+        int draws = 110_000;
+        for (String author : new String[]{null, "author"}) {
+            Map<Long, Integer> counts = new HashMap<>();
+            for (int i = 0; i < draws; i++) {
+                counts.merge(sampler.weightedSample(author, 100, Set.of(3L), 1)[0], 1, Integer::sum);
+            }
+            assertEquals(expected.keySet(), counts.keySet());
+            expected.forEach((id, share) -> assertEquals(share * draws, counts.get(id), 0.05 * share * draws + 50));
+        }
+
+        // Once views age out, every quote weighs the same again
+        sampler.updateWeights(new LongIntHashMap());
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int i = 0; i < draws; i++) {
+            counts.merge(sampler.weightedSample(null, 100, Set.of(3L), 1)[0], 1, Integer::sum);
+        }
+        for (int count : counts.values()) {
+            assertEquals(draws / 9.0, count, 0.05 * draws / 9);
+        }
+    }
+
+    @Test
+    void shouldDrawWithoutReplacementInProportionToRemainingWeight() {
+        QuoteSampler sampler = new QuoteSampler();
+        for (long id = 1; id <= 3; id++) {
+            sampler.add(quote(id, "Author", 10));
+        }
+        LongIntHashMap views = new LongIntHashMap();
+        views.put(1, 7);
+        sampler.updateWeights(views);
+
+        // Weights 8, 1 and 1: ID 1 comes first 80% of the time, and a pair always holds two distinct IDs
+        int draws = 50_000;
+        int firstIsHeavy = 0;
+        int heavyIncluded = 0;
+        for (int i = 0; i < draws; i++) {
+            long[] pair = sampler.weightedSample(null, 100, Set.of(), 2);
+            assertEquals(2, pair.length);
+            assertNotEquals(pair[0], pair[1]);
+            firstIsHeavy += pair[0] == 1 ? 1 : 0;
+            heavyIncluded += pair[0] == 1 || pair[1] == 1 ? 1 : 0;
+        }
+        assertEquals(0.8 * draws, firstIsHeavy, 0.02 * draws);
+        // Missed only when both light quotes come first: 0.1 * 1/9 * 2
+        assertEquals((1 - 0.2 / 9) * draws, heavyIncluded, 0.01 * draws);
+    }
+
+    private static QuoteSnapshot quote(long id, String author, int length) {
+        return new QuoteSnapshot(id, "x".repeat(length), author, LocalDateTime.of(2024, 1, 1, 0, 0), 0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.quote.index;
+
+import com.example.quote.model.QuoteSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuoteSearchIndexTest {
+
+    private QuoteSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new QuoteSearchIndex();
+        index.add(quote(1, "The only way to do great work is to love what you do.", "Steve Jobs"));
+        index.add(quote(2, "Innovation distinguishes between a leader and a follower.", "Steve Jobs"));
+        index.add(quote(3, "In the middle of difficulty lies opportunity.", "Albert Einstein"));
+        index.add(quote(4, "Great work, great love, great life.", "Anonymous"));
+    }
+
+    @Test
+    void shouldRequireEveryTermAndRankByRelevance() {
+        assertEquals(List.of(4L, 1L), index.search("great WORK", 10));
+        assertEquals(List.of(3L), index.search("difficulty opportunity", 10));
+        assertEquals(List.of(), index.search("great difficulty", 10));
+    }
+
+    @Test
+    void shouldMatchAuthorsAndLimitResults() {
+        assertEquals(2, index.search("steve jobs", 10).size());
+        assertEquals(1, index.search("jobs", 1).size());
+    }
+
+    @Test
+    void shouldFollowUpdatesAndDeletes() {
+        QuoteSnapshot original = quote(3, "In the middle of difficulty lies opportunity.", "Albert Einstein");
+        index.replace(original, quote(3, "Imagination is more important than knowledge.", "Albert Einstein"));
+        assertEquals(List.of(), index.search("opportunity", 10));
+        assertEquals(List.of(3L), index.search("imagination", 10));
+
+        index.remove(quote(2, "", "Steve Jobs"));
+        assertEquals(List.of(1L), index.search("steve", 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void shouldKeepResultsAcrossCompaction() {
+        for (long id = 100; id < 3_100; id++) {
+            index.add(quote(id, "Filler quote number " + id + " about patience.", "Filler"));
+        }
+        for (long id = 100; id < 3_100; id++) {
+            index.remove(quote(id, "", "Filler"));
+        }
+        assertEquals(List.of(), index.search("patience", 10));
+        assertEquals(List.of(3L), index.search("difficulty", 10));
+        assertEquals(4, index.size());
+    }
+
+    private static QuoteSnapshot quote(long id, String text, String author) {
+        return new QuoteSnapshot(id, text, author, LocalDateTime.now(), 0);
+    }
+}
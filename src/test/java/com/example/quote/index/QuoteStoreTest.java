@@ -0,0 +1,138 @@
+package com.example.quote.index;
+
+import com.example.quote.dto.QuoteResponse;
+import com.example.quote.model.QuoteSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuoteStoreTest {
+
+    @Test
+    void shouldMatchSortedMapUnderRandomWrites() {
+        QuoteStore store = new QuoteStore();
+        TreeMap<Long, QuoteSnapshot> expected = new TreeMap<>();
+        Random random = new Random(7);
+
+        // Rebuild in shuffled order, then apply enough writes to split and drop chunks
+        store.clear();
+        for (long id : random.longs(3 * QuoteStore.CHUNK_SIZE, 1, 20_000).distinct().toArray()) {
+            QuoteSnapshot quote = quote(id, "Author " + (id % 13));
+            store.add(quote);
+            expected.put(id, quote);
+        }
+        store.finishRebuild();
+
+        for (int i = 0; i < 20_000; i++) {
+            long id = 1 + random.nextInt(20_000);
+            QuoteSnapshot existing = expected.get(id);
+            if (existing != null && random.nextBoolean()) {
+                store.remove(existing);
+                expected.remove(id);
+            } else if (existing != null) {
+                QuoteSnapshot updated = quote(id, "Author " + random.nextInt(13), "Shared text " + random.nextInt(50));
+                store.replace(existing, updated);
+                expected.put(id, updated);
+            } else {
+                QuoteSnapshot created = quote(id, "Author " + (id % 13));
+                store.add(created);
+                expected.put(id, created);
+            }
+        }
+
+        assertEquals(expected.size(), store.size());
+        List<Long> ids = new ArrayList<>();
+        store.forEach(0, quote -> ids.add(quote.getId()));
+        assertEquals(new ArrayList<>(expected.keySet()), ids);
+        for (Map.Entry<Long, QuoteSnapshot> entry : expected.entrySet()) {
+            QuoteResponse quote = store.get(entry.getKey(), 0);
+            assertEquals(entry.getValue().author(), quote.getAuthor());
+            assertEquals(entry.getValue().createdAt(), quote.getCreatedAt());
+            assertEquals(entry.getValue().version(), quote.getVersion());
+        }
+        long after = expected.firstKey() + 1_000;
+        assertEquals(new ArrayList<>(expected.tailMap(after, false).keySet()).subList(0, 50),
+                store.page(after, 50, 0).stream().map(QuoteResponse::getId).toList());
+        for (int author = 0; author < 13; author++) {
+            String name = "Author " + author;
+            assertEquals(expected.values().stream().filter(quote -> quote.author().equals(name)).map(QuoteSnapshot::id).toList(),
+                    store.byAuthor(name.toUpperCase(), 0).stream().map(QuoteResponse::getId).toList());
+        }
+        assertArrayEquals(new int[]{
+                (int) expected.values().stream().map(QuoteSnapshot::text).distinct().count(),
+                (int) expected.values().stream().map(QuoteSnapshot::author).distinct().count()
+        }, store.internedCounts());
+    }
+
+    @Test
+    void shouldShareTextsAndDropInternedValuesWithTheirLastRow() {
+        QuoteStore store = new QuoteStore();
+        store.add(quote(1, "einstein", new String("Imagination is more important than knowledge.")));
+        store.add(quote(2, "einstein", new String("Imagination is more important than knowledge.")));
+        assertSame(store.get(1, 0).getText(), store.get(2, 0).getText());
+        assertArrayEquals(new int[]{1, 1}, store.internedCounts());
+
+        // Merging spellings retires the old one once no row uses it
+        store.replace(quote(1, "einstein", "Imagination is more important than knowledge."),
+                quote(1, "Einstein", "Imagination is more important than knowledge."));
+        assertArrayEquals(new int[]{1, 2}, store.internedCounts());
+        store.replace(quote(2, "einstein", "Imagination is more important than knowledge."),
+                quote(2, "Einstein", "Imagination is more important than knowledge."));
+        assertArrayEquals(new int[]{1, 1}, store.internedCounts());
+        assertEquals(List.of("Einstein", "Einstein"), store.byAuthor("EINSTEIN", 0).stream().map(QuoteResponse::getAuthor).toList());
+
+        store.remove(quote(1, "Einstein", "Imagination is more important than knowledge."));
+        store.remove(quote(2, "Einstein", "Imagination is more important than knowledge."));
+        assertArrayEquals(new int[]{0, 0}, store.internedCounts());
+        assertEquals(List.of(), store.byAuthor("einstein", 0));
+    }
+
+    @Test
+    void shouldInternOnlyRebuiltRows() {
+        QuoteStore store = new QuoteStore();
+        store.add(quote(1, "Retired Spelling"));
+        store.add(quote(2, "Kept"));
+
+        store.clear();
+        store.add(quote(2, "Kept"));
+        store.add(quote(3, "Dropped During Rebuild"));
+        store.remove(quote(3, "Dropped During Rebuild"));
+        store.finishRebuild();
+
+        assertArrayEquals(new int[]{1, 1}, store.internedCounts());
+        assertEquals(List.of(), store.byAuthor("retired spelling", 0));
+        assertEquals(List.of(), store.byAuthor("dropped during rebuild", 0));
+        assertEquals(List.of(2L), store.byAuthor("kept", 0).stream().map(QuoteResponse::getId).toList());
+    }
+
+    @Test
+    void shouldKeepChangesThatRaceWithRebuild() {
+        QuoteStore store = new QuoteStore();
+        store.clear();
+        store.add(quote(1, "Rebuilt"));
+        store.add(quote(2, "Rebuilt"));
+        store.replace(quote(1, "Rebuilt"), quote(1, "Edited"));
+        store.remove(quote(2, "Rebuilt"));
+        store.finishRebuild();
+
+        assertEquals(1, store.size());
+        assertEquals("Edited", store.get(1, 1).getAuthor());
+        assertTrue(store.get(1, 1).isDailyQuote());
+        assertNull(store.get(2, 1));
+    }
+
+    private static QuoteSnapshot quote(long id, String author) {
+        return quote(id, author, "Quote number " + id);
+    }
+
+    private static QuoteSnapshot quote(long id, String author, String text) {
+        return new QuoteSnapshot(id, text, author, LocalDateTime.of(2024, 1, 1, 0, 0).plusNanos(id * 1_000), id % 7);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.quote.popularity;
+
+import com.example.quote.config.QuoteProperties;
+import com.example.quote.event.QuoteChangedEvent;
+import com.example.quote.index.QuoteSampler;
+import com.example.quote.model.QuoteSnapshot;
+import com.example.quote.repository.QuoteViewsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QuotePopularityTest {
+
+    @Test
+    void shouldQueueDeletionsWithoutWaitingForARunningFlush() throws Exception {
+        QuoteViewsRepository repository = mock(QuoteViewsRepository.class);
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findMostViewed(any())).thenAnswer(invocation -> {
+            flushing.countDown();
+            release.await();
+            return List.of();
+        });
+        List<Set<Long>> deletedBatches = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            deletedBatches.add(Set.copyOf(invocation.<Collection<Long>>getArgument(0)));
+            return 1;
+        }).when(repository).deleteAllByQuoteIdIn(any());
+        QuotePopularity popularity = new QuotePopularity(new QuoteProperties(), repository, mock(JdbcTemplate.class),
+                mock(PlatformTransactionManager.class), new QuoteSampler());
+
+        Thread flusher = new Thread(popularity::flush);
+        flusher.start();
+        try {
+            assertTrue(flushing.await(5, TimeUnit.SECONDS));
+            // The flush is stuck in its database read; an after-commit listener must not queue behind it
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> popularity.onQuoteChanged(QuoteChangedEvent.deleted(
+                    new QuoteSnapshot(7, "A deleted quote.", "Author", LocalDateTime.of(2024, 1, 1, 0, 0), 0))));
+        } finally {
+            release.countDown();
+            flusher.join();
+        }
+        assertEquals(List.of(), deletedBatches);
+
+        popularity.flush();
+        assertEquals(List.of(Set.of(7L)), deletedBatches);
+    }
+}
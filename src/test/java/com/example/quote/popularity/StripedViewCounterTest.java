@@ -0,0 +1,52 @@
+package com.example.quote.popularity;
+
+import com.example.quote.util.LongIntHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedViewCounterTest {
+
+    @Test
+    void shouldNotLoseViewsRecordedWhileDraining() throws Exception {
+        StripedViewCounter counter = new StripedViewCounter(2);
+        AtomicBoolean running = new AtomicBoolean(true);
+        long[] drained = new long[11];
+        int threads = 8;
+        int viewsPerThread = 200_000;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads + 1)) {
+            Future<?> drainer = executor.submit(() -> {
+                while (running.get()) {
+                    counter.drain().forEach((quoteId, views) -> drained[(int) quoteId] += views);
+                }
+            });
+            List<Future<?>> recorders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                recorders.add(executor.submit(() -> {
+                    for (int i = 0; i < viewsPerThread; i++) {
+                        counter.record(1 + i % 10);
+                    }
+                }));
+            }
+            for (Future<?> recorder : recorders) {
+                recorder.get();
+            }
+            running.set(false);
+            drainer.get();
+        }
+        LongIntHashMap rest = counter.drain();
+        rest.forEach((quoteId, views) -> drained[(int) quoteId] += views);
+
+        for (int quoteId = 1; quoteId <= 10; quoteId++) {
+            assertEquals((long) threads * viewsPerThread / 10, drained[quoteId]);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.quote.popularity;
+
+import com.example.quote.model.ViewCount;
+import com.example.quote.util.LongIntHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ViewWindowsTest {
+
+    @Test
+    void shouldDropBucketsAsTheySlideOutOfEachWindow() {
+        // Windows of one and three buckets
+        ViewWindows windows = new ViewWindows(new int[]{1, 3});
+        windows.add(10, views(1, 5, 2, 1));
+        windows.add(11, views(2, 3));
+        windows.add(11, views(3, 1));
+
+        assertEquals(List.of(new ViewCount(2, 3), new ViewCount(3, 1)), windows.top(0, 10));
+        assertEquals(List.of(new ViewCount(1, 5), new ViewCount(2, 4), new ViewCount(3, 1)), windows.top(1, 10));
+
+        windows.add(13, views());
+        assertEquals(List.of(), windows.top(0, 10));
+        assertEquals(List.of(new ViewCount(2, 3), new ViewCount(3, 1)), windows.top(1, 10));
+
+        windows.remove(2);
+        assertEquals(List.of(new ViewCount(3, 1)), windows.top(1, 10));
+
+        // A late bucket counts as the current one, and a long gap clears every window
+        windows.add(12, views(4, 2));
+        assertEquals(List.of(new ViewCount(4, 2)), windows.top(0, 10));
+        windows.add(20, views(5, 1));
+        assertEquals(List.of(new ViewCount(5, 1)), windows.top(1, 10));
+    }
+
+    @Test
+    void shouldStillHoldTheLastFullWindowRightAfterABucketBoundary() {
+        ViewWindows hourly = ViewWindows.covering(List.of(Duration.ofHours(1)), Duration.ofHours(1));
+        hourly.add(10, views(1, 5));
+        hourly.add(11, views(2, 1));
+        assertEquals(List.of(new ViewCount(1, 5), new ViewCount(2, 1)), hourly.top(0, 10));
+
+        hourly.add(12, views());
+        assertEquals(List.of(new ViewCount(2, 1)), hourly.top(0, 10));
+
+        // A window that is not a whole number of buckets rounds up before the extra bucket
+        ViewWindows windows = ViewWindows.covering(List.of(Duration.ofSeconds(90)), Duration.ofMinutes(1));
+        windows.add(0, views(3, 1));
+        windows.add(2, views());
+        assertEquals(List.of(new ViewCount(3, 1)), windows.top(0, 10));
+        windows.add(3, views());
+        assertEquals(List.of(), windows.top(0, 10));
+    }
+
+    @Test
+    void shouldKeepTheMostViewedQuotesInOrder() {
+        // IDs 1 to 1000 get every view count from 0 to 999 once, in scrambled order
+        LongIntHashMap views = new LongIntHashMap();
+        long[] idWithViews = new long[1_000];
+        for (long id = 1; id <= 1_000; id++) {
+            int count = (int) (id * 7919 % 1_000);
+            views.put(id, count);
+            idWithViews[count] = id;
+        }
+        views.put(1_001, 999);
+        ViewWindows windows = new ViewWindows(new int[]{1});
+        windows.add(0, views);
+
+        // Ties rank the lower ID first
+        assertEquals(List.of(new ViewCount(idWithViews[999], 999), new ViewCount(1_001, 999),
+                new ViewCount(idWithViews[998], 998), new ViewCount(idWithViews[997], 997),
+                new ViewCount(idWithViews[996], 996)), windows.top(0, 5));
+    }
+
+    private static LongIntHashMap views(long... idsAndCounts) {
+        LongIntHashMap views = new LongIntHashMap();
+        for (int i = 0; i < idsAndCounts.length; i += 2) {
+            views.addTo(idsAndCounts[i], (int) idsAndCounts[i + 1]);
+        }
+        return views;
+    }
+}
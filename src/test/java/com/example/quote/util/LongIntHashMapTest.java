@@ -0,0 +1,71 @@
+package com.example.quote.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntHashMapTest {
+
+    @Test
+    void shouldBehaveLikeHashMapUnderRandomOperations() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? LongIntHashMap.MISSING : removed, map.remove(key));
+            } else {
+                Integer previous = expected.put(key, i);
+                assertEquals(previous == null ? LongIntHashMap.MISSING : previous, map.put(key, i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 1; key <= 5_000; key++) {
+            Integer value = expected.get(key);
+            assertEquals(value == null ? LongIntHashMap.MISSING : value, map.get(key));
+        }
+    }
+
+    @Test
+    void shouldAccumulateAndVisitEveryEntry() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        for (long key = 1; key <= 1_000; key++) {
+            for (int i = 0; i < key % 5; i++) {
+                map.addTo(key, 2);
+            }
+        }
+        assertEquals(-2, map.addTo(7_000, -2));
+
+        Map<Long, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(map.size(), visited.size());
+        assertEquals(-2, visited.get(7_000L));
+        for (long key = 1; key <= 1_000; key++) {
+            assertEquals(key % 5 == 0 ? null : (int) (2 * (key % 5)), visited.get(key));
+        }
+    }
+
+    @Test
+    void shouldRejectReservedKey() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        map.put(1L, 5);
+        map.remove(1L);
+        map.put(2L, 7);
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(0L, 1));
+        assertThrows(IllegalArgumentException.class, () -> map.addTo(0L, 1));
+        assertEquals(LongIntHashMap.MISSING, map.get(0L));
+        assertFalse(map.containsKey(0L));
+        assertEquals(LongIntHashMap.MISSING, map.remove(0L));
+        assertEquals(1, map.size());
+        assertEquals(7, map.get(2L));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.quote.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLruCacheTest {
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntry() {
+        LongLruCache<String> cache = new LongLruCache<>(3, 1);
+        put(cache, 1, "one");
+        put(cache, 2, "two");
+        put(cache, 3, "three");
+
+        assertEquals("one", cache.get(1));
+        put(cache, 4, "four");
+
+        assertNull(cache.get(2));
+        assertEquals("one", cache.get(1));
+        assertEquals("three", cache.get(3));
+        assertEquals("four", cache.get(4));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.evictions());
+    }
+
+    @Test
+    void shouldRejectLoadThatOverlapsInvalidation() {
+        LongLruCache<String> cache = new LongLruCache<>(8, 1);
+        long version = cache.version(7);
+        cache.remove(7);
+
+        assertFalse(cache.putIfUnchanged(7, "stale", version));
+        assertNull(cache.get(7));
+
+        put(cache, 7, "fresh");
+        cache.remove(7);
+        put(cache, 8, "reused");
+        assertNull(cache.get(7));
+        assertEquals("reused", cache.get(8));
+        assertEquals(1, cache.size());
+    }
+
+    private static void put(LongLruCache<String> cache, long key, String value) {
+        assertTrue(cache.putIfUnchanged(key, value, cache.version(key)));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.quote.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(-TimeUnit.SECONDS.toNanos(5));
+
+    @Test
+    void shouldRefillTokensOverTimeAndChargeByCost() {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 5, 100, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("a", 8));
+        assertEquals(0, limiter.tryAcquire("a", 2));
+        long wait = limiter.tryAcquire("a", 1);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), wait);
+        assertEquals(0, limiter.tryAcquire("b", 10), "Clients have separate buckets");
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(0, limiter.tryAcquire("a", 1));
+        assertTrue(limiter.tryAcquire("a", 1) > 0);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(0, limiter.tryAcquire("a", 50), "Costs above the capacity are charged as a full bucket");
+        assertTrue(limiter.tryAcquire("a", 1) > 0);
+    }
+
+    @Test
+    void shouldForgetOnlyClientsWithFullBucketsAndShareOneBucketBeyondMaxClients() {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 10, 2, clock::get);
+        limiter.tryAcquire("a", 10);
+        limiter.tryAcquire("b", 1);
+        assertEquals(0, limiter.tryAcquire("c", 10));
+        assertTrue(limiter.tryAcquire("d", 1) > 0, "New clients beyond the limit share the overflow bucket");
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        limiter.evictIdle();
+        assertEquals(1, limiter.clientCount());
+        assertTrue(limiter.tryAcquire("a", 10) > 0, "A partly refilled bucket is kept");
+        assertEquals(0, limiter.tryAcquire("b", 10), "A refilled bucket is forgotten and starts full");
+    }
+}
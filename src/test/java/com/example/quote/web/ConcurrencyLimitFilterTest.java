@@ -0,0 +1,78 @@
+package com.example.quote.web;
+
+import com.example.quote.config.QuoteProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldHoldSlotUntilAsyncProcessingCompletes() throws Exception {
+        ConcurrencyLimitFilter filter = filter();
+        MockHttpServletRequest export = request("/api/v1/quotes/export");
+        FilterChain startsAsync = (request, response) -> request.startAsync();
+        filter.doFilter(export, new MockHttpServletResponse(), startsAsync);
+
+        assertEquals(1.0, registry.get("quote.concurrency.in.flight").gauge().value());
+        assertEquals(503, send(filter, "/api/v1/quotes/random").getStatus());
+
+        ((MockAsyncContext) export.getAsyncContext()).complete();
+        assertEquals(0.0, registry.get("quote.concurrency.in.flight").gauge().value());
+        assertEquals(200, send(filter, "/api/v1/quotes/random").getStatus());
+    }
+
+    @Test
+    void shouldReleaseSlotOnceWhenAsyncProcessingTimesOut() throws Exception {
+        ConcurrencyLimitFilter filter = filter();
+        MockHttpServletRequest export = request("/api/v1/quotes/export");
+        filter.doFilter(export, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+
+        MockAsyncContext async = (MockAsyncContext) export.getAsyncContext();
+        async.getListeners().forEach(listener -> {
+            try {
+                listener.onTimeout(null);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        });
+        async.complete();
+
+        assertEquals(0.0, registry.get("quote.concurrency.in.flight").gauge().value());
+        assertEquals(200, send(filter, "/api/v1/quotes/random").getStatus());
+        assertEquals(0.0, registry.get("quote.concurrency.in.flight").gauge().value());
+    }
+
+    private ConcurrencyLimitFilter filter() {
+        QuoteProperties properties = new QuoteProperties();
+        properties.getConcurrency().setMaxInFlight(1);
+        properties.getConcurrency().setAcquireTimeout(Duration.ofMillis(10));
+        return new ConcurrencyLimitFilter(properties, new ObjectMapper().findAndRegisterModules(), registry);
+    }
+
+    private static MockHttpServletResponse send(ConcurrencyLimitFilter filter, String path)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(path), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setAsyncSupported(true);
+        return request;
+    }
+}
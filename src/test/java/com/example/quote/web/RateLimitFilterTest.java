@@ -0,0 +1,100 @@
+package com.example.quote.web;
+
+import com.example.quote.config.QuoteProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldThrottleClientsThatExhaustTheirTokens() throws Exception {
+        RateLimitFilter filter = filter(40, 100);
+
+        assertEquals(200, send(filter, "GET", "/api/v1/quotes", "10.0.0.1").getStatus());
+        assertEquals(200, send(filter, "GET", "/api/v1/quotes", "10.0.0.1").getStatus());
+        MockHttpServletResponse throttled = send(filter, "GET", "/api/v1/quotes", "10.0.0.1");
+        assertEquals(429, throttled.getStatus());
+        assertEquals("1", throttled.getHeader("Retry-After"));
+        assertTrue(throttled.getContentAsString().contains("Rate limit exceeded"));
+
+        assertEquals(200, send(filter, "GET", "/api/v1/quotes", "10.0.0.2").getStatus());
+        assertEquals(200, send(filter, "GET", "/api/v1/quotes/daily", "10.0.0.1").getStatus());
+        assertEquals(1.0, registry.get("quote.ratelimit.rejected").tag("reason", "client").counter().count());
+    }
+
+    @Test
+    void shouldShedOnlyExpensiveRequestsWhileOverloaded() throws Exception {
+        RateLimitFilter filter = filter(500, 1);
+        AtomicInteger expensive = new AtomicInteger();
+        AtomicInteger cheap = new AtomicInteger();
+
+        FilterChain busy = (request, response) -> {
+            // One request is in flight here, which is the shedding threshold
+            expensive.set(send(filter, "GET", "/api/v1/quotes/export", "10.0.0.3").getStatus());
+            cheap.set(send(filter, "GET", "/api/v1/quotes/random", "10.0.0.3").getStatus());
+        };
+        filter.doFilter(request("GET", "/api/v1/quotes/42", "10.0.0.4"), new MockHttpServletResponse(), busy);
+
+        assertEquals(503, expensive.get());
+        assertEquals(200, cheap.get());
+        assertEquals(200, send(filter, "GET", "/api/v1/quotes/export", "10.0.0.3").getStatus());
+        assertEquals(1.0, registry.get("quote.ratelimit.rejected").tag("reason", "overload").counter().count());
+    }
+
+    @Test
+    void shouldCountStreamingResponsesAsInFlightUntilAsyncProcessingCompletes() throws Exception {
+        RateLimitFilter filter = filter(500, 1);
+        MockHttpServletRequest export = request("GET", "/api/v1/quotes/export", "10.0.0.5");
+        export.setAsyncSupported(true);
+        filter.doFilter(export, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+
+        assertEquals(503, send(filter, "GET", "/api/v1/quotes/export", "10.0.0.6").getStatus());
+
+        ((MockAsyncContext) export.getAsyncContext()).complete();
+        assertEquals(200, send(filter, "GET", "/api/v1/quotes/export", "10.0.0.6").getStatus());
+    }
+
+    @Test
+    void shouldNotCountEventStreamSubscriptionsAsInFlight() throws Exception {
+        RateLimitFilter filter = filter(500, 1);
+        MockHttpServletRequest subscription = request("GET", "/api/v1/quotes/stream", "10.0.0.7");
+        subscription.setAsyncSupported(true);
+        filter.doFilter(subscription, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+
+        assertEquals(200, send(filter, "GET", "/api/v1/quotes/export", "10.0.0.7").getStatus());
+    }
+
+    private RateLimitFilter filter(int capacity, int shedInFlight) {
+        QuoteProperties properties = new QuoteProperties();
+        properties.getRateLimit().setCapacity(capacity);
+        properties.getRateLimit().setShedInFlight(shedInFlight);
+        return new RateLimitFilter(properties, null, new ObjectMapper().findAndRegisterModules(), registry);
+    }
+
+    private static MockHttpServletResponse send(RateLimitFilter filter, String method, String path, String client)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, path, client), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(client);
+        return request;
+    }
+}